@@ -10,16 +10,24 @@ import com.pvptoggle.command.PvPCommand;
 import com.pvptoggle.listener.CombatListener;
 import com.pvptoggle.listener.PlayerListener;
 import com.pvptoggle.listener.ZoneListener;
+import com.pvptoggle.manager.ActionBarManager;
+import com.pvptoggle.manager.CombatTagManager;
 import com.pvptoggle.manager.PlaytimeManager;
 import com.pvptoggle.manager.PvPManager;
 import com.pvptoggle.manager.ZoneManager;
+import com.pvptoggle.util.MessageCatalog;
+import com.pvptoggle.util.TaskScheduler;
 import com.pvptoggle.util.UpdateChecker;
 
 public class PvPTogglePlugin extends JavaPlugin {
 
+    private TaskScheduler taskScheduler;
     private PvPManager pvpManager;
     private ZoneManager zoneManager;
     private PlaytimeManager playtimeManager;
+    private CombatTagManager combatTagManager;
+    private ActionBarManager actionBars;
+    private MessageCatalog messages;
     
     // Store listener references for config reloading
     private CombatListener combatListener;
@@ -34,14 +42,18 @@ public class PvPTogglePlugin extends JavaPlugin {
         getServer().getConsoleSender().sendMessage("§b| |_) / _ \\| |/ _` | '__| |_) \\ \\ / / |_) |");
         getServer().getConsoleSender().sendMessage("§b|  __/ (_) | | (_| | |  |  __/ \\ V /|  __/");
         getServer().getConsoleSender().sendMessage("§b|_|   \\___/|_|\\__,_|_|  |_|     \\_/ |_|");
-        getServer().getConsoleSender().sendMessage("§7  PolarPvP-Manager §fv" + version + " §7| §aBukkit/Spigot/Paper/Purpur");
+        getServer().getConsoleSender().sendMessage("§7  PolarPvP-Manager §fv" + version + " §7| §aBukkit/Spigot/Paper/Purpur/Folia");
         getServer().getConsoleSender().sendMessage("");
 
         saveDefaultConfig();
 
+        taskScheduler   = TaskScheduler.create(this);
+        messages        = new MessageCatalog(this);
+        actionBars      = new ActionBarManager(this);
         pvpManager      = new PvPManager(this);
         zoneManager     = new ZoneManager(this);
         playtimeManager = new PlaytimeManager(this);
+        combatTagManager = new CombatTagManager(this);
         pvpManager.loadData();
         zoneManager.loadZones();
 
@@ -62,6 +74,9 @@ public class PvPTogglePlugin extends JavaPlugin {
         Objects.requireNonNull(getCommand("pvpadmin")).setTabCompleter(adminCmd);
 
         playtimeManager.startTracking();
+        zoneManager.startActivationTimer();
+        combatTagManager.start();
+        actionBars.start();
 
         UpdateChecker updateChecker = new UpdateChecker(this);
         getServer().getPluginManager().registerEvents(updateChecker, this);
@@ -73,11 +88,14 @@ public class PvPTogglePlugin extends JavaPlugin {
     @Override
     public void onDisable() {
         if (playtimeManager != null) playtimeManager.stopTracking();
+        if (zoneManager != null)     zoneManager.stopActivationTimer();
+        if (combatTagManager != null) combatTagManager.stop();
+        if (actionBars != null)      actionBars.stop();
 
-        // Synchronous saves on shutdown to ensure data is persisted
-        // Async saves during normal operation, but shutdown requires completion
-        if (pvpManager != null)  pvpManager.saveData();
-        if (zoneManager != null) zoneManager.saveZones();
+        // Synchronous on shutdown, but only what changed since the last save:
+        // the journal engine just flushes its tail, zones are usually saved already
+        if (pvpManager != null)  pvpManager.closeStorage();
+        if (zoneManager != null) zoneManager.flushZones();
 
         getLogger().info("PvPToggle disabled, data saved.");
     }
@@ -89,8 +107,14 @@ public class PvPTogglePlugin extends JavaPlugin {
         reloadConfig();
         
         // Reload cached config values in managers and listeners
+        if (messages != null)        messages.load();
         if (playtimeManager != null) playtimeManager.loadConfigValues();
-        if (zoneManager != null) zoneManager.loadZones();
+        if (pvpManager != null)      pvpManager.loadConfigValues();
+        if (combatTagManager != null) combatTagManager.loadConfigValues();
+        if (zoneManager != null) {
+            zoneManager.loadConfigValues();
+            zoneManager.loadZones();
+        }
         if (combatListener != null) combatListener.loadConfig();
         if (zoneListener != null)    zoneListener.loadConfig();
     }
@@ -98,4 +122,9 @@ public class PvPTogglePlugin extends JavaPlugin {
     public PvPManager      getPvPManager()      { return pvpManager; }
     public ZoneManager     getZoneManager()     { return zoneManager; }
     public PlaytimeManager getPlaytimeManager() { return playtimeManager; }
+    public CombatTagManager getCombatTagManager() { return combatTagManager; }
+    public ZoneListener    getZoneListener()    { return zoneListener; }
+    public MessageCatalog  getMessages()        { return messages; }
+    public TaskScheduler   getTaskScheduler()   { return taskScheduler; }
+    public ActionBarManager getActionBars()     { return actionBars; }
 }
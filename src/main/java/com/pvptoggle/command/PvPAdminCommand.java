@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -18,18 +20,26 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.manager.PlaytimeManager;
+import com.pvptoggle.manager.ZoneResultCache;
 import com.pvptoggle.model.PlayerData;
 import com.pvptoggle.model.PvPZone;
+import com.pvptoggle.model.ZoneSchedule;
 import com.pvptoggle.util.CommandUtil;
 import com.pvptoggle.util.ConfigUtil;
 import com.pvptoggle.util.MessageUtil;
 
-// /pvpadmin wand | zone create/delete/list/info | player <name> info/reset/setdebt | reload
+// /pvpadmin wand | zone create/delete/list/info/schedule/stats | player <name> info/reset/setdebt | reload | refreshperms | timings
 public class PvPAdminCommand implements TabExecutor {
 
     private static final String PLAYERS_ONLY = "&cOnly players can use this.";
     private static final String SUB_PLAYER = "player";
     private static final String SUB_DELETE = "delete";
+    private static final String SUB_SCHEDULE = "schedule";
+    private static final String ZONE_SCHEDULE_USAGE =
+            "&cUsage: /pvpadmin zone schedule <name> <days HH:mm-HH:mm>[; ...] | clear";
+    private static final String ZONE_CREATE_USAGE =
+            "&cUsage: /pvpadmin zone create <name> [cuboid|cylinder|polygon] [minY maxY]";
 
     private final PvPTogglePlugin plugin;
 
@@ -49,7 +59,9 @@ public class PvPAdminCommand implements TabExecutor {
             case "zone"     -> handleZone(sender, args);
             case SUB_PLAYER -> handlePlayer(sender, args);
             case "reload"   -> handleReload(sender);
+            case "refreshperms" -> handleRefreshPerms(sender, args);
             case "simtime"  -> handleSimtime(sender, args);
+            case "timings"  -> handleTimings(sender);
             default         -> { return false; }
         }
         return true;
@@ -67,7 +79,9 @@ public class PvPAdminCommand implements TabExecutor {
             meta.setDisplayName(ChatColor.YELLOW + "PvP Zone Selector");
             meta.setLore(Arrays.asList(
                     ChatColor.GRAY + "Left click: Set position 1",
-                    ChatColor.GRAY + "Right click: Set position 2"
+                    ChatColor.GRAY + "Right click: Set position 2",
+                    ChatColor.GRAY + "Sneak + right click: Add polygon point",
+                    ChatColor.GRAY + "Sneak + left click: Clear polygon points"
             ));
             wand.setItemMeta(meta);
         }
@@ -77,7 +91,7 @@ public class PvPAdminCommand implements TabExecutor {
 
     private void handleZone(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            MessageUtil.send(sender, "&cUsage: /pvpadmin zone <create|delete|list|info> [name]");
+            MessageUtil.send(sender, "&cUsage: /pvpadmin zone <create|delete|list|info|schedule|stats> [name]");
             return;
         }
 
@@ -86,13 +100,15 @@ public class PvPAdminCommand implements TabExecutor {
             case SUB_DELETE  -> zoneDelete(sender, args);
             case "list"      -> zoneList(sender);
             case "info"      -> zoneInfo(sender, args);
-            default -> MessageUtil.send(sender, "&cUsage: /pvpadmin zone <create|delete|list|info> [name]");
+            case SUB_SCHEDULE -> zoneSchedule(sender, args);
+            case "stats"     -> zoneStats(sender);
+            default -> MessageUtil.send(sender, "&cUsage: /pvpadmin zone <create|delete|list|info|schedule|stats> [name]");
         }
     }
 
     private void zoneCreate(CommandSender sender, String[] args) {
         if (args.length < 3) {
-            MessageUtil.send(sender, "&cUsage: /pvpadmin zone create <name>");
+            MessageUtil.send(sender, ZONE_CREATE_USAGE);
             return;
         }
         Player player = CommandUtil.requirePlayer(sender, PLAYERS_ONLY);
@@ -102,8 +118,31 @@ public class PvPAdminCommand implements TabExecutor {
             MessageUtil.send(player, "&cA zone named '&f" + name + "&c' already exists.");
             return;
         }
-        if (plugin.getZoneManager().createZone(name, player.getUniqueId())) {
+
+        PvPZone.Shape shape = PvPZone.Shape.CUBOID;
+        if (args.length >= 4) {
+            try {
+                shape = PvPZone.Shape.valueOf(args[3].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                MessageUtil.send(player, ZONE_CREATE_USAGE);
+                return;
+            }
+        }
+        int[] heights = null;
+        if (args.length >= 6) {
+            try {
+                heights = new int[]{Integer.parseInt(args[4]), Integer.parseInt(args[5])};
+            } catch (NumberFormatException e) {
+                MessageUtil.send(player, "&cInvalid height range: &f" + args[4] + " " + args[5]);
+                return;
+            }
+        }
+
+        if (plugin.getZoneManager().createZone(name, player.getUniqueId(), shape, heights)) {
             MessageUtil.send(player, "&aZone '&f" + name + "&a' created successfully!");
+        } else if (shape == PvPZone.Shape.POLYGON) {
+            MessageUtil.send(player,
+                    "&cFailed to create zone. Sneak + right click at least 3 polygon points with the wand.");
         } else {
             MessageUtil.send(player,
                     "&cFailed to create zone. Make sure you selected both positions in the same world.");
@@ -146,8 +185,73 @@ public class PvPAdminCommand implements TabExecutor {
         }
         MessageUtil.send(sender, "&6&l══════ Zone: " + zone.getName() + " ══════");
         MessageUtil.send(sender, "&7World: &f" + zone.getWorldName());
-        MessageUtil.send(sender, "&7Corner 1: &f(" + zone.getX1() + ", " + zone.getY1() + ", " + zone.getZ1() + ")");
-        MessageUtil.send(sender, "&7Corner 2: &f(" + zone.getX2() + ", " + zone.getY2() + ", " + zone.getZ2() + ")");
+        MessageUtil.send(sender, "&7Shape: &f" + zone.getShape().name().toLowerCase(Locale.ROOT));
+        switch (zone.getShape()) {
+            case CYLINDER -> {
+                MessageUtil.send(sender, "&7Center: &f(" + zone.getCenterX() + ", " + zone.getCenterZ() + ")"
+                        + " &7radius: &f" + zone.getRadius());
+                MessageUtil.send(sender, "&7Height: &f" + zone.getY1() + " to " + zone.getY2());
+            }
+            case POLYGON -> {
+                MessageUtil.send(sender, "&7Points: &f" + zone.getPointsX().length);
+                MessageUtil.send(sender, "&7Height: &f" + zone.getY1() + " to " + zone.getY2());
+            }
+            default -> { /* corners below */ }
+        }
+        if (zone.getSchedule() != null) {
+            MessageUtil.send(sender, "&7Schedule: &f" + String.join("&7; &f", zone.getSchedule().getSpecs())
+                    + (plugin.getZoneManager().isZoneActive(zone) ? " &a(active)" : " &7(inactive)"));
+        }
+        String prefix = zone.getShape() == PvPZone.Shape.CUBOID ? "Corner" : "Bounds";
+        MessageUtil.send(sender, "&7" + prefix + " 1: &f(" + zone.getX1() + ", " + zone.getY1() + ", " + zone.getZ1() + ")");
+        MessageUtil.send(sender, "&7" + prefix + " 2: &f(" + zone.getX2() + ", " + zone.getY2() + ", " + zone.getZ2() + ")");
+    }
+
+    private void zoneSchedule(CommandSender sender, String[] args) {
+        if (args.length < 4) {
+            MessageUtil.send(sender, ZONE_SCHEDULE_USAGE);
+            return;
+        }
+        String name = args[2];
+        ZoneSchedule schedule = null;
+        if (!args[3].equalsIgnoreCase("clear")) {
+            String joined = String.join(" ", Arrays.copyOfRange(args, 3, args.length));
+            try {
+                schedule = ZoneSchedule.parse(Arrays.stream(joined.split(";"))
+                        .map(String::trim).filter(spec -> !spec.isEmpty()).toList());
+            } catch (IllegalArgumentException e) {
+                MessageUtil.send(sender, "&cInvalid schedule: &f" + e.getMessage());
+                MessageUtil.send(sender, ZONE_SCHEDULE_USAGE);
+                return;
+            }
+        }
+        if (!plugin.getZoneManager().setZoneSchedule(name, schedule)) {
+            MessageUtil.send(sender, "&cZone '&f" + name + "&c' not found.");
+        } else if (schedule == null) {
+            MessageUtil.send(sender, "&aZone '&f" + name + "&a' is now always active.");
+        } else {
+            MessageUtil.send(sender, "&aZone '&f" + name + "&a' scheduled: &f" + String.join("&7; &f", schedule.getSpecs()));
+        }
+    }
+
+    private void zoneStats(CommandSender sender) {
+        Map<String, ZoneResultCache> caches = plugin.getZoneManager().getZoneCaches();
+        if (caches.isEmpty()) {
+            MessageUtil.send(sender, "&7No zone lookups cached yet.");
+            return;
+        }
+        MessageUtil.send(sender, "&6&l══════ Zone Cache ══════");
+        for (Map.Entry<String, ZoneResultCache> entry : caches.entrySet()) {
+            ZoneResultCache cache = entry.getValue();
+            long hits = cache.getHits();
+            long lookups = hits + cache.getMisses();
+            long hitRate = lookups == 0 ? 0 : hits * 100 / lookups;
+            MessageUtil.send(sender, "&7 • &f" + entry.getKey()
+                    + " &7size: &f" + cache.getSize() + "/" + cache.getCapacity()
+                    + " &7hits: &f" + hits + " (" + hitRate + "%)"
+                    + " &7misses: &f" + cache.getMisses()
+                    + " &7evictions: &f" + cache.getEvictions());
+        }
     }
 
     @SuppressWarnings("deprecation")
@@ -177,6 +281,7 @@ public class PvPAdminCommand implements TabExecutor {
             }
             case "reset" -> {
                 plugin.getPvPManager().resetPlayerData(uuid);
+                plugin.getPlaytimeManager().refreshPlayer(uuid);
                 MessageUtil.send(sender, "&aAll data for '&f" + playerName + "&a' has been reset.");
             }
             case "setdebt" -> {
@@ -187,6 +292,7 @@ public class PvPAdminCommand implements TabExecutor {
                 try {
                     long seconds = Long.parseLong(args[3]);
                     data.setPvpDebtSeconds(seconds);
+                    plugin.getPlaytimeManager().refreshPlayer(uuid);
                     MessageUtil.send(sender,
                             "&aPvP debt for '&f" + playerName + "&a' set to &f"
                                     + MessageUtil.formatTime(data.getPvpDebtSeconds()));
@@ -210,6 +316,7 @@ public class PvPAdminCommand implements TabExecutor {
             long seconds = Long.parseLong(args[1]);
             PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
             data.setTotalPlaytimeSeconds(data.getTotalPlaytimeSeconds() + seconds);
+            plugin.getPlaytimeManager().refreshPlayer(player.getUniqueId());
             MessageUtil.send(player, "&aAdded &f" + MessageUtil.formatTime(seconds)
                     + " &ato your playtime. Total: &f"
                     + MessageUtil.formatTime(data.getTotalPlaytimeSeconds()));
@@ -219,6 +326,38 @@ public class PvPAdminCommand implements TabExecutor {
         }
     }
 
+    private void handleRefreshPerms(CommandSender sender, String[] args) {
+        if (args.length >= 2) {
+            Player target = Bukkit.getPlayerExact(args[1]);
+            if (target == null) {
+                MessageUtil.send(sender, "&cPlayer '&f" + args[1] + "&c' is not online.");
+                return;
+            }
+            plugin.getPvPManager().refreshPermissions(target);
+            MessageUtil.send(sender, "&aRefreshed cached permissions for '&f" + target.getName() + "&a'.");
+            return;
+        }
+        plugin.getPvPManager().refreshAllPermissions();
+        MessageUtil.send(sender, "&aRefreshed cached permissions for all online players.");
+    }
+
+    private void handleTimings(CommandSender sender) {
+        PlaytimeManager playtime = plugin.getPlaytimeManager();
+        MessageUtil.send(sender, "&6&l══════ Playtime Timings ══════");
+        if (playtime.isRegionized()) {
+            MessageUtil.send(sender, "&7Mode: &fper-player tasks on each region's thread (Folia)");
+            return;
+        }
+        MessageUtil.send(sender, "&7Mode: &f" + (playtime.isSharded()
+                ? "sharded (one bucket per tick)" : "unsharded (all buckets every 20 ticks)"));
+        for (int bucket = 0; bucket < playtime.getBucketCount(); bucket++) {
+            MessageUtil.send(sender, "&7 • &fbucket " + bucket
+                    + " &7players: &f" + playtime.getBucketSize(bucket)
+                    + " &7last: &f" + playtime.getBucketLastNanos(bucket) / 1000 + "µs"
+                    + " &7avg: &f" + playtime.getBucketAverageNanos(bucket) / 1000 + "µs");
+        }
+    }
+
     private void handleReload(CommandSender sender) {
         plugin.reloadPluginConfig();
         MessageUtil.send(sender, "&aConfiguration reloaded!");
@@ -227,15 +366,19 @@ public class PvPAdminCommand implements TabExecutor {
     private void sendHelp(CommandSender sender) {
         MessageUtil.send(sender, "&6&l══════ PvPToggle Admin ══════");
         MessageUtil.send(sender, "&e/pvpadmin wand &7— get zone selection wand");
-        MessageUtil.send(sender, "&e/pvpadmin zone create <name> &7— create a zone");
+        MessageUtil.send(sender, "&e/pvpadmin zone create <name> [shape] [minY maxY] &7— create a zone");
         MessageUtil.send(sender, "&e/pvpadmin zone delete <name> &7— delete a zone");
         MessageUtil.send(sender, "&e/pvpadmin zone list &7— list all zones");
         MessageUtil.send(sender, "&e/pvpadmin zone info <name> &7— zone details");
+        MessageUtil.send(sender, "&e/pvpadmin zone schedule <name> <windows|clear> &7— limit a zone to time windows");
+        MessageUtil.send(sender, "&e/pvpadmin zone stats &7— zone lookup cache statistics");
         MessageUtil.send(sender, "&e/pvpadmin player <name> info &7— player info");
         MessageUtil.send(sender, "&e/pvpadmin player <name> reset &7— reset player data");
         MessageUtil.send(sender, "&e/pvpadmin player <name> setdebt <sec> &7— set PvP debt");
         MessageUtil.send(sender, "&e/pvpadmin reload &7— reload config");
+        MessageUtil.send(sender, "&e/pvpadmin refreshperms [player] &7— re-read cached bypass/admin permissions");
         MessageUtil.send(sender, "&e/pvpadmin simtime <seconds> &7— add fake playtime (testing)");
+        MessageUtil.send(sender, "&e/pvpadmin timings &7— per-tick playtime processing costs");
     }
 
     @Override
@@ -243,22 +386,28 @@ public class PvPAdminCommand implements TabExecutor {
         List<String> completions = new ArrayList<>();
 
         switch (args.length) {
-            case 1 -> completions.addAll(Arrays.asList("wand", "zone", SUB_PLAYER, "reload", "simtime"));
+            case 1 -> completions.addAll(Arrays.asList("wand", "zone", SUB_PLAYER, "reload", "refreshperms", "simtime", "timings"));
             case 2 -> {
                 if (args[0].equalsIgnoreCase("zone")) {
-                    completions.addAll(Arrays.asList("create", SUB_DELETE, "list", "info"));
-                } else if (args[0].equalsIgnoreCase(SUB_PLAYER)) {
+                    completions.addAll(Arrays.asList("create", SUB_DELETE, "list", "info", SUB_SCHEDULE, "stats"));
+                } else if (args[0].equalsIgnoreCase(SUB_PLAYER) || args[0].equalsIgnoreCase("refreshperms")) {
                     Bukkit.getOnlinePlayers().forEach(p -> completions.add(p.getName()));
                 }
             }
             case 3 -> {
                 if (args[0].equalsIgnoreCase("zone")
-                        && (args[1].equalsIgnoreCase(SUB_DELETE) || args[1].equalsIgnoreCase("info"))) {
+                        && (args[1].equalsIgnoreCase(SUB_DELETE) || args[1].equalsIgnoreCase("info")
+                            || args[1].equalsIgnoreCase(SUB_SCHEDULE))) {
                     completions.addAll(plugin.getZoneManager().getZoneNames());
                 } else if (args[0].equalsIgnoreCase(SUB_PLAYER)) {
                     completions.addAll(Arrays.asList("info", "reset", "setdebt"));
                 }
             }
+            case 4 -> {
+                if (args[0].equalsIgnoreCase("zone") && args[1].equalsIgnoreCase("create")) {
+                    completions.addAll(Arrays.asList("cuboid", "cylinder", "polygon"));
+                }
+            }
             default -> { /* no completions */ }
         }
 
@@ -2,7 +2,6 @@ package com.pvptoggle.command;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Stream;
 
 import org.bukkit.command.Command;
@@ -12,6 +11,9 @@ import org.bukkit.entity.Player;
 
 import com.pvptoggle.PvPTogglePlugin;
 import com.pvptoggle.model.PlayerData;
+import com.pvptoggle.model.PvPZone;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.MessageCatalog;
 import com.pvptoggle.util.MessageUtil;
 
 // /pvp on|off|status
@@ -26,7 +28,7 @@ public class PvPCommand implements TabExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player player)) {
-            MessageUtil.send(sender, "&cThis command can only be used by players.");
+            plugin.getMessages().send(sender, Message.PLAYER_ONLY);
             return false;
         }
 
@@ -45,71 +47,82 @@ public class PvPCommand implements TabExecutor {
     }
 
     private void toggleOn(Player player) {
+        MessageCatalog messages = plugin.getMessages();
         if (plugin.getPvPManager().isForcedPvP(player)) {
-            MessageUtil.send(player, plugin.getConfig().getString("messages.pvp-already-forced",
-                    "&7PvP is already &cforced on &7for you right now."));
+            messages.send(player, Message.PVP_ALREADY_FORCED);
             return;
         }
         PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
         if (data.isPvpEnabled()) {
-            MessageUtil.send(player, plugin.getConfig().getString("messages.pvp-already-on",
-                    "&7Your PvP is already &aenabled&7."));
+            messages.send(player, Message.PVP_ALREADY_ON);
             return;
         }
         data.setPvpEnabled(true);
-        MessageUtil.send(player,
-                plugin.getConfig().getString("messages.pvp-enabled", "&a&l⚔ PvP has been enabled!"));
+        messages.send(player, Message.PVP_ENABLED);
     }
 
     private void toggleOff(Player player) {
+        MessageCatalog messages = plugin.getMessages();
         // Prevent toggling off while forced
         if (plugin.getPvPManager().isForcedPvP(player)) {
-            if (plugin.getZoneManager().isInForcedPvPZone(player.getLocation())) {
-                MessageUtil.send(player,
-                        plugin.getConfig().getString("messages.pvp-forced-zone",
-                                "&4&l\u26a0 &cYou're in a &4forced PvP zone&c! You can't disable PvP here."));
+            PvPZone zone = plugin.getZoneManager().getPlayerZone(player);
+            if (zone != null) {
+                messages.send(player, Message.PVP_FORCED_ZONE, zone.getName());
+            } else if (plugin.getZoneManager().isGlobalPvPWindow()) {
+                messages.send(player, Message.PVP_FORCED_WINDOW);
+            } else if (plugin.getPvPManager().isWorldForced(player)) {
+                messages.send(player, Message.PVP_FORCED_WORLD);
+            } else if (plugin.getCombatTagManager().isTagged(player)) {
+                messages.send(player, Message.PVP_COMBAT_TAGGED,
+                        MessageUtil.formatTime(plugin.getCombatTagManager().getRemainingSeconds(player)));
             } else {
                 PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
-                String template = Objects.requireNonNullElse(
-                        plugin.getConfig().getString("messages.pvp-forced-playtime"),
-                        "&4&l\u26a0 &cForced PvP active! &f%time% &cremaining.");
-                String msg = template.replace("%time%", MessageUtil.formatTime(data.getPvpDebtSeconds()));
-                MessageUtil.send(player, msg);
+                messages.send(player, Message.PVP_FORCED_PLAYTIME, MessageUtil.formatTime(data.getPvpDebtSeconds()));
             }
             return;
         }
 
         PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
         if (!data.isPvpEnabled()) {
-            MessageUtil.send(player, plugin.getConfig().getString("messages.pvp-already-off",
-                    "&7Your PvP is already &cdisabled&7."));
+            messages.send(player, Message.PVP_ALREADY_OFF);
             return;
         }
         data.setPvpEnabled(false);
-        MessageUtil.send(player,
-                plugin.getConfig().getString("messages.pvp-disabled", "&c⚔ PvP has been disabled."));
+        messages.send(player, Message.PVP_DISABLED);
     }
 
     private void showStatus(Player player) {
+        MessageCatalog messages = plugin.getMessages();
         PlayerData data    = plugin.getPvPManager().getPlayerData(player.getUniqueId());
         boolean effective  = plugin.getPvPManager().isEffectivePvPEnabled(player);
         boolean forced     = plugin.getPvPManager().isForcedPvP(player);
 
-        MessageUtil.send(player, "&6&l══════ PvP Status ══════");
-        MessageUtil.send(player, "&7PvP: " + (effective ? "&a✓ Enabled" : "&c✗ Disabled"));
-        MessageUtil.send(player, "&7Manual toggle: " + (data.isPvpEnabled() ? "&aOn" : "&cOff"));
+        messages.send(player, Message.STATUS_HEADER);
+        messages.send(player, effective ? Message.STATUS_ENABLED : Message.STATUS_DISABLED);
+        messages.send(player, data.isPvpEnabled() ? Message.STATUS_TOGGLE_ON : Message.STATUS_TOGGLE_OFF);
 
         if (forced) {
-            MessageUtil.send(player, "&7Forced: &c&lYes");
-            if (plugin.getZoneManager().isInForcedPvPZone(player.getLocation())) {
-                MessageUtil.send(player, "&7  Reason: &eForced PvP Zone");
+            messages.send(player, Message.STATUS_FORCED);
+            PvPZone zone = plugin.getZoneManager().getPlayerZone(player);
+            if (zone != null) {
+                messages.send(player, Message.STATUS_REASON_ZONE, zone.getName());
+            }
+            if (plugin.getZoneManager().isGlobalPvPWindow()) {
+                messages.send(player, Message.STATUS_REASON_WINDOW);
+            }
+            if (plugin.getPvPManager().isWorldForced(player)) {
+                messages.send(player, Message.STATUS_REASON_WORLD);
+            }
+            if (plugin.getCombatTagManager().isTagged(player)) {
+                messages.send(player, Message.STATUS_REASON_COMBAT,
+                        MessageUtil.formatTime(plugin.getCombatTagManager().getRemainingSeconds(player)));
             }
             if (data.getPvpDebtSeconds() > 0) {
-                MessageUtil.send(player, "&7  Playtime debt: &f" + MessageUtil.formatTime(data.getPvpDebtSeconds()));
+                messages.send(player, Message.STATUS_DEBT, MessageUtil.formatTime(data.getPvpDebtSeconds()));
             }
         }
 
-        MessageUtil.send(player, "&7Total playtime: &f" + MessageUtil.formatTime(data.getTotalPlaytimeSeconds()));
+        messages.send(player, Message.STATUS_PLAYTIME, MessageUtil.formatTime(data.getTotalPlaytimeSeconds()));
     }
 
     @Override
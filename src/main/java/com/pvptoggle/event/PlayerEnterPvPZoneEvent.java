@@ -0,0 +1,40 @@
+package com.pvptoggle.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Fired on the main thread when a player's block position moves into a forced
+ * PvP zone, including on join and after teleports, respawns and world changes.
+ * Moving straight from one zone into another fires a leave event first.
+ *
+ * Not fired when {@code zone-events.batch} is enabled; listen for
+ * {@link PvPZoneTransitionBatchEvent} instead.
+ */
+public class PlayerEnterPvPZoneEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final PvPZone zone;
+
+    public PlayerEnterPvPZoneEvent(Player player, PvPZone zone) {
+        super(player);
+        this.zone = zone;
+    }
+
+    public PvPZone getZone() {
+        return zone;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pvptoggle.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Fired on the main thread when a player's block position leaves a forced PvP
+ * zone. Not fired when the player quits while inside one.
+ *
+ * Not fired when {@code zone-events.batch} is enabled; listen for
+ * {@link PvPZoneTransitionBatchEvent} instead.
+ */
+public class PlayerLeavePvPZoneEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final PvPZone zone;
+
+    public PlayerLeavePvPZoneEvent(Player player, PvPZone zone) {
+        super(player);
+        this.zone = zone;
+    }
+
+    public PvPZone getZone() {
+        return zone;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pvptoggle.event;
+
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Fired once per tick on the main thread with every zone transition detected
+ * during the previous tick, when {@code zone-events.batch} is enabled.
+ * Transitions are in detection order; a player may appear more than once.
+ */
+public class PvPZoneTransitionBatchEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * One zone change. {@code from} is null when the player entered from outside
+     * every zone, {@code to} is null when they left to outside every zone.
+     */
+    public record Transition(Player player, PvPZone from, PvPZone to) {}
+
+    private final List<Transition> transitions;
+
+    public PvPZoneTransitionBatchEvent(List<Transition> transitions) {
+        this.transitions = List.copyOf(transitions);
+    }
+
+    public List<Transition> getTransitions() {
+        return transitions;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -1,22 +1,75 @@
 package com.pvptoggle.listener;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.EnderCrystal;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
 import org.bukkit.entity.Tameable;
+import org.bukkit.entity.ThrownPotion;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.AreaEffectCloudApplyEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.PotionSplashEvent;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionType;
 
 import com.pvptoggle.PvPTogglePlugin;
-import com.pvptoggle.util.MessageUtil;
+import com.pvptoggle.manager.ActionBarManager.Channel;
+import com.pvptoggle.manager.PvPManager;
+import com.pvptoggle.manager.PvPPolicy;
+import com.pvptoggle.manager.PvPPolicy.Outcome;
+import com.pvptoggle.util.Message;
 
 public class CombatListener implements Listener {
 
+    // Feedback reasons, indexes into PlayerSession's feedback timestamps
+    private static final int REASON_ATTACKER_OFF = 0;
+    private static final int REASON_VICTIM_OFF   = 1;
+    private static final int REASON_WORLD_DISABLED = 2;
+
+    // Effects that make a thrown potion an attack on other players (1.20.4 names)
+    private static final Set<PotionEffectType> HARMFUL_EFFECTS = Set.of(
+            PotionEffectType.HARM, PotionEffectType.POISON, PotionEffectType.WITHER,
+            PotionEffectType.WEAKNESS, PotionEffectType.SLOW, PotionEffectType.SLOW_DIGGING,
+            PotionEffectType.BLINDNESS, PotionEffectType.CONFUSION, PotionEffectType.HUNGER,
+            PotionEffectType.LEVITATION, PotionEffectType.UNLUCK, PotionEffectType.DARKNESS);
+
     private final PvPTogglePlugin plugin;
     private boolean debugEnabled; // Cached debug flag
 
+    // Blocked-hit feedback; the messages themselves are precompiled in the catalog
+    private boolean feedbackActionBar;
+    private long attackerCooldownMillis;
+    private long victimCooldownMillis;
+
+    // Who last damaged each end crystal; entries go away with the crystal entity.
+    // Synchronized since Folia handles fights in different regions at the same time
+    private final Map<Entity, UUID> crystalAttackers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // The explosive last resolved and who set it off. A blast damages all its victims
+    // at once, each in its own damage event, and both handlers see every one of them,
+    // so this is resolved once per explosion. Swapped as a whole so concurrent regions
+    // on Folia only ever miss; a blown-up entity is never the damager again.
+    private record Explosion(Entity explosive, Player attacker) {}
+    private volatile Explosion lastExplosion;
+
     public CombatListener(PvPTogglePlugin plugin) {
         this.plugin = plugin;
         loadConfig();
@@ -27,10 +80,30 @@ public class CombatListener implements Listener {
      */
     public void loadConfig() {
         this.debugEnabled = plugin.getConfig().getBoolean("debug", false);
+
+        this.feedbackActionBar = plugin.getConfig().getBoolean("blocked-hit-feedback.actionbar", false);
+        this.attackerCooldownMillis = readCooldown("blocked-hit-feedback.attacker-cooldown");
+        this.victimCooldownMillis = readCooldown("blocked-hit-feedback.victim-cooldown");
+    }
+
+    private long readCooldown(String path) {
+        int seconds = plugin.getConfig().getInt(path, 2);
+        if (seconds < 0) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid negative value for ''{0}'' ({1}); using 0 instead.",
+                    new Object[]{path, seconds});
+            seconds = 0;
+        }
+        return seconds * 1000L;
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+        if (event.getEntity() instanceof EnderCrystal crystal) {
+            // Remember who set the crystal off; its explosion damages players right after
+            Player attacker = resolvePlayerAttacker(event.getDamager());
+            if (attacker != null) crystalAttackers.put(crystal, attacker.getUniqueId());
+            return;
+        }
         if (!(event.getEntity() instanceof Player victim)) return;
 
         Player attacker = resolvePlayerAttacker(event.getDamager());
@@ -38,31 +111,150 @@ public class CombatListener implements Listener {
         if (attacker.equals(victim)) return;
 
         if (debugEnabled) {
-            plugin.getLogger().log(java.util.logging.Level.INFO, "[DEBUG] Combat: {0} -> {1} | damager type: {2}",
+            plugin.getLogger().log(Level.INFO, "[DEBUG] Combat: {0} -> {1} | damager type: {2}",
                     new Object[]{attacker.getName(), victim.getName(), event.getDamager().getType()});
         }
 
-        boolean attackerPvP = plugin.getPvPManager().isEffectivePvPEnabled(attacker);
-        boolean victimPvP   = plugin.getPvPManager().isEffectivePvPEnabled(victim);
+        PvPManager pvp = plugin.getPvPManager();
+        Outcome outcome = pvp.getPolicy().decide(pvp.getPolicyInputs(attacker), pvp.getPolicyInputs(victim));
 
         if (debugEnabled) {
-            plugin.getLogger().log(java.util.logging.Level.INFO, "[DEBUG] Result: attackerPvP={0}, victimPvP={1}",
-                    new Object[]{attackerPvP, victimPvP});
+            plugin.getLogger().log(Level.INFO, "[DEBUG] Result: {0}", outcome);
         }
 
-        if (!attackerPvP) {
-            MessageUtil.send(attacker,
-                    plugin.getConfig().getString("messages.pvp-blocked-attacker",
-                            "&c&l\u2718 &cYour PvP is off! &7Use &a/pvp on &7to fight."));
+        if (outcome != Outcome.ALLOW) {
             event.setCancelled(true);
-            return;
+            sendBlockedFeedback(attacker, outcome);
         }
+    }
 
-        if (!victimPvP) {
-            MessageUtil.send(attacker,
-                    plugin.getConfig().getString("messages.pvp-blocked-victim",
-                            "&c&l\u2718 &cThat player has PvP disabled!"));
-            event.setCancelled(true);
+    // Tag only hits that actually landed, after every other plugin had its say
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPvPHit(EntityDamageByEntityEvent event) {
+        if (!(event.getEntity() instanceof Player victim)) return;
+        Player attacker = resolvePlayerAttacker(event.getDamager());
+        if (attacker == null || attacker.equals(victim)) return;
+        plugin.getCombatTagManager().tag(attacker);
+        plugin.getCombatTagManager().tag(victim);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPotionSplash(PotionSplashEvent event) {
+        ThrownPotion potion = event.getPotion();
+        if (!(potion.getShooter() instanceof Player attacker)) return;
+        if (!isHarmful(potion.getEffects())) return;
+
+        for (Player victim : protectedTargets(attacker, event.getAffectedEntities())) {
+            event.setIntensity(victim, 0);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPotionSplashLanded(PotionSplashEvent event) {
+        ThrownPotion potion = event.getPotion();
+        if (!(potion.getShooter() instanceof Player attacker)) return;
+        if (!isHarmful(potion.getEffects())) return;
+
+        boolean hit = false;
+        for (LivingEntity entity : event.getAffectedEntities()) {
+            if (entity instanceof Player victim && !victim.equals(attacker) && event.getIntensity(victim) > 0) {
+                plugin.getCombatTagManager().tag(victim);
+                hit = true;
+            }
+        }
+        if (hit) plugin.getCombatTagManager().tag(attacker);
+    }
+
+    // Lingering potions: the cloud applies its effects every few ticks for its whole lifetime
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onAreaEffectCloudApply(AreaEffectCloudApplyEvent event) {
+        AreaEffectCloud cloud = event.getEntity();
+        if (!(cloud.getSource() instanceof Player attacker)) return;
+        if (!isHarmful(cloud)) return;
+
+        List<Player> blocked = protectedTargets(attacker, event.getAffectedEntities());
+        if (!blocked.isEmpty()) event.getAffectedEntities().removeAll(blocked);
+
+        boolean hit = false;
+        for (LivingEntity entity : event.getAffectedEntities()) {
+            if (entity instanceof Player victim && !victim.equals(attacker)) {
+                plugin.getCombatTagManager().tag(victim);
+                hit = true;
+            }
+        }
+        if (hit) plugin.getCombatTagManager().tag(attacker);
+    }
+
+    /**
+     * Decide one attack that reaches several entities at once. The attacker's
+     * inputs are read once for the whole batch and each victim costs one mask
+     * read and a table lookup; at most one feedback message goes out per batch.
+     *
+     * @return the players the attack must not affect
+     */
+    private List<Player> protectedTargets(Player attacker, Collection<LivingEntity> affected) {
+        PvPManager pvp = plugin.getPvPManager();
+        PvPPolicy policy = pvp.getPolicy();
+        int attackerInputs = pvp.getPolicyInputs(attacker);
+        List<Player> blocked = null;
+        Outcome firstBlock = null;
+        for (LivingEntity entity : affected) {
+            if (!(entity instanceof Player victim) || victim.equals(attacker)) continue;
+            Outcome outcome = policy.decide(attackerInputs, pvp.getPolicyInputs(victim));
+            if (outcome == Outcome.ALLOW) continue;
+            if (blocked == null) {
+                blocked = new ArrayList<>();
+                firstBlock = outcome;
+            }
+            blocked.add(victim);
+        }
+        if (blocked == null) return Collections.emptyList();
+
+        if (debugEnabled) {
+            plugin.getLogger().log(Level.INFO, "[DEBUG] Area attack by {0}: {1} of {2} targets protected ({3})",
+                    new Object[]{attacker.getName(), blocked.size(), affected.size(), firstBlock});
+        }
+        sendBlockedFeedback(attacker, firstBlock);
+        return blocked;
+    }
+
+    private static boolean isHarmful(AreaEffectCloud cloud) {
+        PotionType base = cloud.getBasePotionType();
+        return (base != null && isHarmful(base.getPotionEffects())) || isHarmful(cloud.getCustomEffects());
+    }
+
+    private static boolean isHarmful(Collection<PotionEffect> effects) {
+        for (PotionEffect effect : effects) {
+            if (HARMFUL_EFFECTS.contains(effect.getType())) return true;
+        }
+        return false;
+    }
+
+    private void sendBlockedFeedback(Player attacker, Outcome outcome) {
+        switch (outcome) {
+            case ATTACKER_OFF   -> sendBlockedFeedback(attacker, REASON_ATTACKER_OFF, attackerCooldownMillis,
+                                                       Message.PVP_BLOCKED_ATTACKER);
+            case VICTIM_OFF     -> sendBlockedFeedback(attacker, REASON_VICTIM_OFF, victimCooldownMillis,
+                                                       Message.PVP_BLOCKED_VICTIM);
+            case WORLD_DISABLED -> sendBlockedFeedback(attacker, REASON_WORLD_DISABLED, attackerCooldownMillis,
+                                                       Message.PVP_BLOCKED_WORLD);
+            case ALLOW          -> { }
+        }
+    }
+
+    /**
+     * Tell the attacker why a hit was blocked, at most once per cooldown and reason,
+     * so sweep attacks and multishot volleys produce one line instead of dozens.
+     */
+    private void sendBlockedFeedback(Player attacker, int reason, long cooldownMillis, Message message) {
+        if (!plugin.getPvPManager().getSession(attacker.getUniqueId())
+                .tryFeedback(reason, System.currentTimeMillis(), cooldownMillis)) {
+            return;
+        }
+        if (feedbackActionBar) {
+            plugin.getActionBars().show(attacker, Channel.BLOCKED_HIT, message);
+        } else {
+            plugin.getMessages().send(attacker, message);
         }
     }
 
@@ -79,6 +271,27 @@ public class CombatListener implements Listener {
                 && tameable.getOwner() instanceof Player owner) {
             return owner;
         }
+        if (damager instanceof TNTPrimed || damager instanceof EnderCrystal) {
+            Explosion last = lastExplosion;
+            if (last != null && last.explosive() == damager) return last.attacker();
+            Player attacker = resolveExplosionAttacker(damager);
+            lastExplosion = new Explosion(damager, attacker);
+            return attacker;
+        }
         return null;
     }
+
+    private Player resolveExplosionAttacker(Entity explosive) {
+        if (explosive instanceof TNTPrimed tnt) {
+            // Lit by hand, by a flaming arrow, or by another player's explosion
+            Entity source = tnt.getSource();
+            if (source instanceof Player igniter) return igniter;
+            if (source instanceof Projectile projectile && projectile.getShooter() instanceof Player shooter) {
+                return shooter;
+            }
+            return null;
+        }
+        UUID attackerId = crystalAttackers.get(explosive);
+        return attackerId == null ? null : Bukkit.getPlayer(attackerId);
+    }
 }
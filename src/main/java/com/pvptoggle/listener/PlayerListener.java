@@ -1,13 +1,17 @@
 package com.pvptoggle.listener;
 
-import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 import com.pvptoggle.PvPTogglePlugin;
 import com.pvptoggle.model.PlayerData;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.MessageCatalog;
 import com.pvptoggle.util.MessageUtil;
 
 public class PlayerListener implements Listener {
@@ -18,30 +22,48 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        // Runs first so every other join handler sees fresh cached permissions
+        plugin.getPvPManager().refreshPermissions(event.getPlayer());
+        plugin.getPvPManager().refreshWorldRules(event.getPlayer());
+        plugin.getPlaytimeManager().startSession(event.getPlayer(), System.currentTimeMillis());
         PlayerData data = plugin.getPvPManager().getPlayerData(event.getPlayer().getUniqueId());
 
         // If they have debt, remind them after login
-        if (data.getPvpDebtSeconds() > 0 && !event.getPlayer().hasPermission("pvptoggle.bypass")) {
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (event.getPlayer().isOnline()) {
-                    MessageUtil.send(event.getPlayer(),
-                            "&c&l⚔ You have forced PvP time remaining: &f"
-                                    + MessageUtil.formatTime(data.getPvpDebtSeconds()));
-                }
-            }, 40L); // 2 seconds after join
+        if (data.getPvpDebtSeconds() > 0 && !plugin.getPvPManager().hasBypass(event.getPlayer())) {
+            plugin.getTaskScheduler().runLater(event.getPlayer(), () ->
+                    plugin.getMessages().send(event.getPlayer(), Message.DEBT_REMINDER,
+                            MessageUtil.formatTime(data.getPvpDebtSeconds())),
+                    40L); // 2 seconds after join
         }
     }
 
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // Per-world permission setups can change what the player has
+        plugin.getPvPManager().refreshPermissions(event.getPlayer());
+        plugin.getPvPManager().refreshWorldRules(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLocaleChange(PlayerLocaleChangeEvent event) {
+        // The client reports its locale shortly after joining and whenever it is changed
+        plugin.getPvPManager().getSession(event.getPlayer().getUniqueId())
+                .setLocale(MessageCatalog.normalize(event.getLocale()));
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getCombatTagManager().untag(event.getPlayer().getUniqueId());
+        plugin.getActionBars().remove(event.getPlayer().getUniqueId());
+        plugin.getPlaytimeManager().endSession(event.getPlayer().getUniqueId(), System.currentTimeMillis());
+        plugin.getPvPManager().removeSession(event.getPlayer().getUniqueId());
+
         // Persist immediately so the player can't dodge debt by leaving
         // Uses async to prevent blocking the main thread during logout
         // Note: If server shuts down immediately after quit, this may not complete.
         // However, onDisable() performs a synchronous save to handle shutdown case.
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPvPManager().saveData();
-        });
+        plugin.getTaskScheduler().runAsync(() -> plugin.getPvPManager().saveData());
     }
 }
@@ -1,29 +1,45 @@
 package com.pvptoggle.listener;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.event.PlayerEnterPvPZoneEvent;
+import com.pvptoggle.event.PlayerLeavePvPZoneEvent;
+import com.pvptoggle.event.PvPZoneTransitionBatchEvent;
+import com.pvptoggle.manager.ActionBarManager.Channel;
+import com.pvptoggle.model.PvPZone;
 import com.pvptoggle.util.ConfigUtil;
-import com.pvptoggle.util.MessageUtil;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.TaskScheduler;
+import com.pvptoggle.util.TaskScheduler.Task;
 
 public class ZoneListener implements Listener {
 
@@ -34,6 +50,17 @@ public class ZoneListener implements Listener {
     private long chatCooldownMillis;
     private long actionbarCooldownMillis;
 
+    // zone-events.batch: queue transitions and fire them as one event per tick
+    private boolean batchEvents;
+    private final List<PvPZoneTransitionBatchEvent.Transition> pendingTransitions = new ArrayList<>();
+    private boolean flushScheduled;
+
+    // zone-tracking.mode: either the move listener or the sampler task is active
+    private final ZoneMoveListener moveListener = new ZoneMoveListener(this);
+    private boolean moveListenerRegistered;
+    private Task samplerTask;
+    private final Location sampleLocation = new Location(null, 0, 0, 0);  // reused by the sampler
+
     public ZoneListener(PvPTogglePlugin plugin) {
         this.plugin = plugin;
         loadConfig();
@@ -59,12 +86,74 @@ public class ZoneListener implements Listener {
         
         this.chatCooldownMillis = chatCooldownSeconds * 1000L;
         this.actionbarCooldownMillis = actionbarCooldownSeconds * 1000L;
+        this.batchEvents = plugin.getConfig().getBoolean("zone-events.batch", false);
+        if (batchEvents && plugin.getTaskScheduler().isFolia()) {
+            // Regions tick in parallel, so there is no single tick to collect transitions from
+            plugin.getLogger().warning("[PvPToggle] 'zone-events.batch' is not supported on Folia; firing one event per transition instead.");
+            this.batchEvents = false;
+        }
+
+        String mode = plugin.getConfig().getString("zone-tracking.mode", "move");
+        boolean sampler = mode.equalsIgnoreCase("sampler");
+        if (!sampler && !mode.equalsIgnoreCase("move")) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''zone-tracking.mode'' ({0}); using move instead.", mode);
+        }
+        int sampleInterval = plugin.getConfig().getInt("zone-tracking.sample-interval", 5);
+        if (sampleInterval < 1) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''zone-tracking.sample-interval'' ({0}); using 1 instead.", sampleInterval);
+            sampleInterval = 1;
+        }
+        applyTrackingMode(sampler, sampleInterval);
+    }
+
+    /**
+     * Switch between per-packet tracking and the position sampler. In sampler mode
+     * the move listener is unregistered entirely so movement packets cost nothing here.
+     */
+    private void applyTrackingMode(boolean sampler, int sampleInterval) {
+        if (samplerTask != null) {
+            samplerTask.cancel();
+            samplerTask = null;
+        }
+        if (sampler) {
+            if (moveListenerRegistered) {
+                HandlerList.unregisterAll(moveListener);
+                moveListenerRegistered = false;
+            }
+            samplerTask = plugin.getTaskScheduler().runTimer(this::samplePlayers, sampleInterval, sampleInterval);
+        } else if (!moveListenerRegistered) {
+            plugin.getServer().getPluginManager().registerEvents(moveListener, plugin);
+            moveListenerRegistered = true;
+        }
+    }
+
+    /**
+     * Re-run zone detection for every online player, e.g. after a scheduled zone
+     * switched on or off underneath them.
+     */
+    public void refreshPlayers() {
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            scheduler.run(player, () -> handleTransition(player, player.getLocation(), true));
+        }
+    }
+
+    // Catches everything that moves a player without a move event: vehicles, pistons, knockback.
+    // On Folia each player is sampled on their region's thread, with their own Location.
+    private void samplePlayers() {
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        boolean shareLocation = !scheduler.isFolia();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            // updatePlayerZone returns early when the block hasn't changed
+            scheduler.run(player, () -> handleTransition(player,
+                    shareLocation ? player.getLocation(sampleLocation) : player.getLocation(), true));
+        }
     }
 
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
-        if (!player.hasPermission("pvptoggle.admin")) return;
+        if (!plugin.getPvPManager().isAdmin(player)) return;
         if (event.getHand() == EquipmentSlot.OFF_HAND) return;
 
         ItemStack item = player.getInventory().getItemInMainHand();
@@ -75,56 +164,119 @@ public class ZoneListener implements Listener {
 
         Action action = event.getAction();
 
-        if (action == Action.LEFT_CLICK_BLOCK) {
+        // Sneaking switches the wand to polygon outlines
+        if (player.isSneaking() && action == Action.RIGHT_CLICK_BLOCK) {
+            event.setCancelled(true);
+            int count = plugin.getZoneManager().addPolygonPoint(player.getUniqueId(), block.getLocation());
+            sendWandMessage(player, Message.WAND_POLYGON_POINT, String.valueOf(count), block);
+        } else if (player.isSneaking() && action == Action.LEFT_CLICK_BLOCK) {
+            event.setCancelled(true);
+            plugin.getZoneManager().clearPolygonPoints(player.getUniqueId());
+            plugin.getMessages().send(player, Message.WAND_POLYGON_CLEARED);
+        } else if (action == Action.LEFT_CLICK_BLOCK) {
             event.setCancelled(true);
             plugin.getZoneManager().setPosition(player.getUniqueId(), 0, block.getLocation());
-            MessageUtil.send(player,
-                    "&ePosition 1 &7set to &f("
-                            + block.getX() + ", " + block.getY() + ", " + block.getZ() + ")");
+            sendWandMessage(player, Message.WAND_POSITION, "1", block);
         } else if (action == Action.RIGHT_CLICK_BLOCK) {
             event.setCancelled(true);
             plugin.getZoneManager().setPosition(player.getUniqueId(), 1, block.getLocation());
-            MessageUtil.send(player,
-                    "&ePosition 2 &7set to &f("
-                            + block.getX() + ", " + block.getY() + ", " + block.getZ() + ")");
+            sendWandMessage(player, Message.WAND_POSITION, "2", block);
         }
     }
 
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
+    // Wand feedback: the position or point number, then the clicked block's coordinates
+    private void sendWandMessage(Player player, Message message, String index, Block block) {
+        plugin.getMessages().send(player, message, index,
+                String.valueOf(block.getX()), String.valueOf(block.getY()), String.valueOf(block.getZ()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
         Location to = event.getTo();
         if (to == null) return;
+        handleTransition(event.getPlayer(), to, true);
+    }
 
-        Location from = event.getFrom();
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        handleTransition(event.getPlayer(), event.getPlayer().getLocation(), true);
+    }
 
-        // Only check when the player crosses a block boundary
-        if (from.getBlockX() == to.getBlockX()
-                && from.getBlockY() == to.getBlockY()
-                && from.getBlockZ() == to.getBlockZ()) {
-            return;
-        }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        handleTransition(event.getPlayer(), event.getRespawnLocation(), true);
+    }
 
-        boolean wasInZone = plugin.getZoneManager().isInForcedPvPZone(from);
-        boolean isInZone  = plugin.getZoneManager().isInForcedPvPZone(to);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Seed membership silently so the first hit doesn't have to look it up
+        handleTransition(event.getPlayer(), event.getPlayer().getLocation(), false);
+    }
+
+    /**
+     * Update the player's stored zone membership, fire zone events for other
+     * plugins and send enter/exit feedback when they cross the boundary of the
+     * forced zone set. This is the only place zone transitions are detected.
+     */
+    void handleTransition(Player player, Location to, boolean notify) {
+        PvPZone previous = plugin.getZoneManager().updatePlayerZone(player, to);
+        PvPZone current  = plugin.getPvPManager().getSession(player.getUniqueId()).getCurrentZone();
+        if (!isSameZone(previous, current)) fireTransition(player, previous, current);
+
+        boolean wasInZone = previous != null;
+        boolean isInZone  = current != null;
+        if (!notify) return;
 
         if (!wasInZone && isInZone) {
-            MessageUtil.send(event.getPlayer(), "&c&l⚔ You entered a forced PvP zone!");
-            MessageUtil.sendActionBar(event.getPlayer(), "&c&l⚔ FORCED PVP ZONE ⚔");
+            plugin.getMessages().send(player, Message.ZONE_ENTER);
+            plugin.getActionBars().show(player, Channel.ZONE, Message.ZONE_ENTER_ACTIONBAR);
         } else if (wasInZone && !isInZone) {
-            Player player = event.getPlayer();
             UUID playerId = player.getUniqueId();
             long currentTime = System.currentTimeMillis();
             
             if (isCooldownReady(chatExitCooldowns, playerId, chatCooldownMillis, currentTime)) {
-                MessageUtil.send(player, "&a&l✓ You left the forced PvP zone.");
+                plugin.getMessages().send(player, Message.ZONE_LEAVE);
             }
             
             if (isCooldownReady(actionbarExitCooldowns, playerId, actionbarCooldownMillis, currentTime)) {
-                MessageUtil.sendActionBar(player, "&a&l✓ You left the forced PvP zone.");
+                plugin.getActionBars().show(player, Channel.ZONE, Message.ZONE_LEAVE_ACTIONBAR);
             }
         }
     }
     
+    private void fireTransition(Player player, PvPZone from, PvPZone to) {
+        // Nobody listening means nothing to build
+        if (batchEvents) {
+            if (PvPZoneTransitionBatchEvent.getHandlerList().getRegisteredListeners().length == 0) return;
+            pendingTransitions.add(new PvPZoneTransitionBatchEvent.Transition(player, from, to));
+            if (!flushScheduled) {
+                flushScheduled = true;
+                plugin.getTaskScheduler().run(this::flushTransitions);
+            }
+            return;
+        }
+        if (from != null && PlayerLeavePvPZoneEvent.getHandlerList().getRegisteredListeners().length > 0) {
+            Bukkit.getPluginManager().callEvent(new PlayerLeavePvPZoneEvent(player, from));
+        }
+        if (to != null && PlayerEnterPvPZoneEvent.getHandlerList().getRegisteredListeners().length > 0) {
+            Bukkit.getPluginManager().callEvent(new PlayerEnterPvPZoneEvent(player, to));
+        }
+    }
+
+    private void flushTransitions() {
+        flushScheduled = false;
+        if (pendingTransitions.isEmpty()) return;
+        PvPZoneTransitionBatchEvent batch = new PvPZoneTransitionBatchEvent(pendingTransitions);
+        pendingTransitions.clear();
+        Bukkit.getPluginManager().callEvent(batch);
+    }
+
+    // A reload replaces zone objects; the same name still counts as the same zone
+    private static boolean isSameZone(PvPZone a, PvPZone b) {
+        if (a == b) return true;
+        return a != null && b != null && a.getName().equalsIgnoreCase(b.getName());
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         // Clean up cooldown data when player leaves to prevent memory leak
@@ -133,6 +285,12 @@ public class ZoneListener implements Listener {
         actionbarExitCooldowns.remove(playerId);
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // Free the world's zone index; it is rebuilt lazily if the world loads again
+        plugin.getZoneManager().unloadWorld(event.getWorld().getName());
+    }
+
     private boolean isCooldownReady(Map<UUID, Long> cooldownMap, UUID playerId, long cooldownMillis, long currentTime) {
         // Early return when cooldown is disabled to avoid unnecessary map operations
         if (cooldownMillis == 0) {
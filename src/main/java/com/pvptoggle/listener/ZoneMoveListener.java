@@ -0,0 +1,37 @@
+package com.pvptoggle.listener;
+
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+/**
+ * Per-packet zone tracking, used when {@code zone-tracking.mode} is {@code move}.
+ * Registered and unregistered by {@link ZoneListener} as the mode changes.
+ */
+public class ZoneMoveListener implements Listener {
+
+    private final ZoneListener zoneListener;
+
+    public ZoneMoveListener(ZoneListener zoneListener) {
+        this.zoneListener = zoneListener;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+        if (to == null) return;
+
+        Location from = event.getFrom();
+
+        // Only check when the player crosses a block boundary
+        if (from.getBlockX() == to.getBlockX()
+                && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ()) {
+            return;
+        }
+
+        zoneListener.handleTransition(event.getPlayer(), to, true);
+    }
+}
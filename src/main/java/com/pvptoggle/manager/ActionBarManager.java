@@ -0,0 +1,139 @@
+package com.pvptoggle.manager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.MessageTemplate;
+import com.pvptoggle.util.TaskScheduler.Task;
+
+import net.md_5.bungee.api.ChatMessageType;
+
+/**
+ * One action bar per player, shared by every subsystem that wants to show one.
+ *
+ * Subsystems don't send action bars themselves; they put an entry in their own
+ * channel, which replaces that channel's previous entry and stays live for a
+ * while. Once per tick each player with live entries is shown the highest
+ * priority one, and the packet is skipped when that text is already on screen.
+ * The client fades an action bar out after about three seconds, so unchanged
+ * text is resent every {@link #KEEPALIVE_TICKS} while its entry lives.
+ *
+ * Entries may be put from any thread (on Folia, the player's region thread);
+ * the flush runs as one global task, since sending a packet is thread-safe.
+ */
+public class ActionBarManager {
+
+    /**
+     * Who is showing something, highest priority first, with how long an entry stays live
+     */
+    public enum Channel {
+        BLOCKED_HIT(40),
+        ZONE(60),
+        DEBT(30);       // refreshed every second while the countdown runs
+
+        private final int ticks;
+
+        Channel(int ticks) { this.ticks = ticks; }
+    }
+
+    private static final int KEEPALIVE_TICKS = 40;
+    private static final Channel[] CHANNELS = Channel.values();
+
+    private final PvPTogglePlugin plugin;
+    private final Map<UUID, Bar> bars = new ConcurrentHashMap<>();   // only players with live entries
+    private Task tickTask;
+    private volatile long tick;
+
+    // Only touched inside the map's compute calls, which serialize per player
+    private static final class Bar {
+        final MessageTemplate[] templates = new MessageTemplate[CHANNELS.length];
+        final String[][] values = new String[CHANNELS.length][];
+        final String[] texts = new String[CHANNELS.length];
+        final long[] expiresAt = new long[CHANNELS.length];
+        String lastSent;
+        long lastSentTick;
+    }
+
+    public ActionBarManager(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        tickTask = plugin.getTaskScheduler().runTimer(this::flush, 1L, 1L);
+    }
+
+    public void stop() {
+        if (tickTask != null) tickTask.cancel();
+        bars.clear();
+    }
+
+    /**
+     * Put a message in the player's channel, in their locale; it shows on the next tick
+     * unless a higher priority channel is live. Messages configured empty are ignored.
+     */
+    public void show(Player player, Channel channel, Message message, String... values) {
+        MessageTemplate template = plugin.getMessages().get(player, message);
+        if (template.isEmpty()) return;
+        String text = template.render(values);
+        int c = channel.ordinal();
+        bars.compute(player.getUniqueId(), (id, bar) -> {
+            if (bar == null) bar = new Bar();
+            bar.templates[c] = template;
+            bar.values[c] = values;
+            bar.texts[c] = text;
+            bar.expiresAt[c] = tick + channel.ticks;
+            return bar;
+        });
+    }
+
+    // Called on quit
+    public void remove(UUID playerId) {
+        bars.remove(playerId);
+    }
+
+    private void flush() {
+        long now = ++tick;
+        for (UUID playerId : bars.keySet()) {
+            bars.computeIfPresent(playerId, (id, bar) -> flush(id, bar, now));
+        }
+    }
+
+    /**
+     * Drop expired entries and send the top one if it isn't already showing.
+     * @return the bar to keep, or null once nothing is left to show
+     */
+    private Bar flush(UUID playerId, Bar bar, long now) {
+        for (int c = 0; c < CHANNELS.length; c++) {
+            if (bar.texts[c] != null && bar.expiresAt[c] <= now) {
+                bar.templates[c] = null;
+                bar.values[c] = null;
+                bar.texts[c] = null;
+            }
+        }
+        int top = topChannel(bar);
+        if (top < 0) return null;
+
+        String text = bar.texts[top];
+        if (text.equals(bar.lastSent) && now - bar.lastSentTick < KEEPALIVE_TICKS) return bar;
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null) return null;
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, bar.templates[top].components(bar.values[top]));
+        bar.lastSent = text;
+        bar.lastSentTick = now;
+        return bar;
+    }
+
+    // Highest priority channel with an entry, or -1
+    private static int topChannel(Bar bar) {
+        for (int c = 0; c < CHANNELS.length; c++) {
+            if (bar.texts[c] != null) return c;
+        }
+        return -1;
+    }
+}
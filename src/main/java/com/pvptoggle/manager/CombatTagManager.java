@@ -0,0 +1,106 @@
+package com.pvptoggle.manager;
+
+import java.util.UUID;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.TaskScheduler.Task;
+import com.pvptoggle.util.TimingWheel;
+
+/**
+ * Combat tags: a player who deals or takes PvP damage can't turn PvP off until
+ * the tag runs out. Expiry is kept on a timing wheel advanced once per tick, so
+ * tagging, re-tagging on every hit and expiring are all O(1) regardless of how
+ * many players are in combat. Hits arrive on whichever thread owns the fight
+ * (several at once on Folia), so the wheel is only touched under its own lock.
+ */
+public class CombatTagManager {
+
+    // 1024 ticks is about 51 seconds, longer than any sensible tag
+    private static final int WHEEL_SLOTS = 1024;
+
+    private final PvPTogglePlugin plugin;
+    private final TimingWheel<UUID> wheel = new TimingWheel<>(WHEEL_SLOTS);
+    private Task tickTask;
+
+    private int tagTicks; // 0 = tagging disabled
+
+    public CombatTagManager(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+        loadConfigValues();
+    }
+
+    /**
+     * Load and cache config values (called on plugin enable and reload).
+     * Running tags keep their current expiry.
+     */
+    public void loadConfigValues() {
+        int seconds = plugin.getConfig().getInt("combat-tag.seconds", 15);
+        if (seconds < 0) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid negative value for ''combat-tag.seconds'' ({0}); using 0 instead.", seconds);
+            seconds = 0;
+        }
+        this.tagTicks = seconds * 20;
+    }
+
+    public void start() {
+        tickTask = plugin.getTaskScheduler().runTimer(() -> {
+            synchronized (wheel) {
+                wheel.advance(this::expire);
+            }
+        }, 1L, 1L);
+    }
+
+    public void stop() {
+        if (tickTask != null) tickTask.cancel();
+    }
+
+    /**
+     * Tag a player, or restart their tag if they are already tagged
+     */
+    public void tag(Player player) {
+        if (tagTicks == 0) return;
+        UUID playerId = player.getUniqueId();
+        synchronized (wheel) {
+            wheel.schedule(playerId, tagTicks);
+        }
+        plugin.getPvPManager().getSession(playerId).setCombatTagged(true);
+    }
+
+    public boolean isTagged(Player player) {
+        return plugin.getPvPManager().getSession(player.getUniqueId()).isCombatTagged();
+    }
+
+    /**
+     * @return whole seconds left on the player's tag, rounded up, or 0 if untagged
+     */
+    public long getRemainingSeconds(Player player) {
+        synchronized (wheel) {
+            return (wheel.remaining(player.getUniqueId()) + 19) / 20;
+        }
+    }
+
+    // Called on quit; the session goes away with the player
+    public void untag(UUID playerId) {
+        synchronized (wheel) {
+            wheel.cancel(playerId);
+        }
+    }
+
+    // The session and the message belong to the player's thread; a hit in between re-tags them
+    private void expire(UUID playerId) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null) return;
+        plugin.getTaskScheduler().run(player, () -> {
+            synchronized (wheel) {
+                if (wheel.contains(playerId)) return;
+            }
+            plugin.getPvPManager().getSession(playerId).setCombatTagged(false);
+            plugin.getMessages().send(player, Message.COMBAT_TAG_EXPIRED);
+        });
+    }
+}
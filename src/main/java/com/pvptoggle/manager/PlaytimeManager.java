@@ -2,28 +2,71 @@ package com.pvptoggle.manager;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.manager.ActionBarManager.Channel;
 import com.pvptoggle.model.PlayerData;
+import com.pvptoggle.util.Message;
 import com.pvptoggle.util.MessageUtil;
+import com.pvptoggle.util.TaskScheduler.Task;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class PlaytimeManager {
 
     private final PvPTogglePlugin plugin;
-    private BukkitTask tickTask;
-    private BukkitTask saveTask;
+    private Task tickTask;
+    private Task saveTask;
+
+    // Folia: no global pass over players; each one ticks on their own region's
+    // thread and the buckets and milestone queue below stay unused
+    private final boolean regionized;
+    private final Map<UUID, Task> playerTasks = new ConcurrentHashMap<>();
+
+    // Guards the debtor buckets, milestone heap and generations below. The tick runs
+    // on the global thread, but sessions, permission refreshes and admin commands
+    // reach them from player region threads on Folia
+    private final Object scheduleLock = new Object();
+
+    // Online players that may have debt to count down, split into one bucket per
+    // tick of a second by UUID; pruned lazily by the tick
+    private static final int BUCKETS = 20;
+    private final List<Set<UUID>> debtorBuckets = new ArrayList<>(BUCKETS);
+    private int nextBucket;
+
+    // Time spent on each bucket: last run and a moving average (nanos)
+    private final long[] bucketLastNanos = new long[BUCKETS];
+    private final long[] bucketAvgNanos = new long[BUCKETS];
+
+    // Next cycle milestone per online player, earliest first. Rescheduling doesn't
+    // search the heap: it bumps the player's generation and the old entry is
+    // skipped when it reaches the head.
+    private record Milestone(long dueMillis, UUID playerId, long generation) {}
+    private final PriorityQueue<Milestone> milestones =
+            new PriorityQueue<>(Comparator.comparingLong(Milestone::dueMillis));
+    private final Map<UUID, Long> milestoneGenerations = new HashMap<>();
+    private long nextGeneration;
     
     // Cached config values (updated on reload)
     private long cycleSeconds;
     private int forcedMinutes;
+    private boolean sharded;
 
     public PlaytimeManager(PvPTogglePlugin plugin) {
         this.plugin = plugin;
+        this.regionized = plugin.getTaskScheduler().isFolia();
+        for (int i = 0; i < BUCKETS; i++) debtorBuckets.add(new HashSet<>());
         loadConfigValues();
     }
     
@@ -41,40 +84,158 @@ public class PlaytimeManager {
         
         this.cycleSeconds = hoursPerCycle * 3600L;
         this.forcedMinutes = plugin.getConfig().getInt("playtime.forced-minutes", 20);
+
+        boolean wasSharded = sharded;
+        this.sharded = plugin.getConfig().getBoolean("tick-sharding", true);
+
+        if (tickTask != null && !regionized) {
+            // A different cycle length moves everyone's next milestone
+            long now = System.currentTimeMillis();
+            synchronized (scheduleLock) {
+                for (Player player : Bukkit.getOnlinePlayers()) scheduleMilestone(player.getUniqueId(), now);
+            }
+            if (sharded != wasSharded) {
+                tickTask.cancel();
+                startTickTask();
+            }
+        }
     }
 
     public void startTracking() {
-        // 1 second tick
-        tickTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                updatePlayerTimesAndDebt();
-            }
-        }.runTaskTimer(plugin, 20L, 20L);
+        // Players already online (plugin reload) start accruing now
+        long now = System.currentTimeMillis();
+        for (Player player : Bukkit.getOnlinePlayers()) startSession(player, now);
+
+        if (!regionized) startTickTask();
 
         // Auto-save (async to prevent blocking)
         long saveIntervalTicks = plugin.getConfig().getInt("save-interval", 5) * 60L * 20L;
-        saveTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                saveDataAsync();
-            }
-        }.runTaskTimer(plugin, saveIntervalTicks, saveIntervalTicks);
+        saveTask = plugin.getTaskScheduler().runAsyncTimer(this::saveData, saveIntervalTicks, saveIntervalTicks);
     }
     
-    /**
-     * Save data asynchronously to prevent blocking the main thread
-     */
-    private void saveDataAsync() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPvPManager().saveData();
-            plugin.getZoneManager().saveZones();
-        });
+    private void startTickTask() {
+        if (sharded) {
+            // One bucket per tick, so every player is still visited once per second
+            tickTask = plugin.getTaskScheduler().runTimer(() -> {
+                synchronized (scheduleLock) {
+                    processDueMilestones(System.currentTimeMillis());
+                    processBucket(nextBucket, Bukkit.getOnlinePlayers().size());
+                    nextBucket = (nextBucket + 1) % BUCKETS;
+                }
+            }, 1L, 1L);
+        } else {
+            // 1 second tick
+            tickTask = plugin.getTaskScheduler().runTimer(this::updatePlayerTimesAndDebt, 20L, 20L);
+        }
+    }
+
+    private void saveData() {
+        plugin.getPvPManager().saveData();
+        plugin.getZoneManager().flushZones();
     }
 
     public void stopTracking() {
         if (tickTask != null) tickTask.cancel();
         if (saveTask != null) saveTask.cancel();
+        playerTasks.values().forEach(Task::cancel);
+        playerTasks.clear();
+        long now = System.currentTimeMillis();
+        for (Player player : Bukkit.getOnlinePlayers()) endSession(player.getUniqueId(), now);
+    }
+
+    /**
+     * Start accruing playtime for a player who came online
+     */
+    public void startSession(Player player, long nowMillis) {
+        PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
+        data.startSession(nowMillis);
+        if (regionized) {
+            startPlayerTask(player);
+            return;
+        }
+        synchronized (scheduleLock) {
+            if (data.getPvpDebtSeconds() > 0) bucketOf(player.getUniqueId()).add(player.getUniqueId());
+            scheduleMilestone(player.getUniqueId(), nowMillis);
+        }
+    }
+
+    // Folia: once a second on the player's own thread, offset by their bucket like the sharded tick
+    private void startPlayerTask(Player player) {
+        UUID playerId = player.getUniqueId();
+        long offset = 1L + Math.floorMod(playerId.hashCode(), BUCKETS);
+        Task task = plugin.getTaskScheduler().runTimer(player, () -> tickPlayer(player), offset, 20L);
+        Task previous = playerTasks.put(playerId, task);
+        if (previous != null) previous.cancel();
+    }
+
+    private void tickPlayer(Player player) {
+        PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
+        checkAndApplyCycleMilestones(player, data, System.currentTimeMillis());
+        decrementPlayerDebt(player, data, Bukkit.getOnlinePlayers().size());
+    }
+
+    /**
+     * Fold a leaving player's session into their accrued playtime
+     */
+    public void endSession(UUID playerId, long nowMillis) {
+        plugin.getPvPManager().getPlayerData(playerId).stopSession(nowMillis);
+        Task task = playerTasks.remove(playerId);
+        if (task != null) task.cancel();
+        if (regionized) return;
+        synchronized (scheduleLock) {
+            bucketOf(playerId).remove(playerId);
+            milestoneGenerations.remove(playerId);
+        }
+    }
+
+    /**
+     * Pick up outside changes to an online player's playtime, cycles or debt
+     * (simtime, setdebt, reset): re-plan their next milestone and count down any debt.
+     */
+    public void refreshPlayer(UUID playerId) {
+        // Folia players check their milestone and debt every second anyway
+        if (regionized || Bukkit.getPlayer(playerId) == null) return;
+        synchronized (scheduleLock) {
+            bucketOf(playerId).add(playerId);
+            scheduleMilestone(playerId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Count an online player's debt down again after they lose pvptoggle.bypass
+     */
+    public void resumeDebt(UUID playerId) {
+        if (regionized || Bukkit.getPlayer(playerId) == null) return;
+        if (plugin.getPvPManager().getPlayerData(playerId).getPvpDebtSeconds() > 0) {
+            synchronized (scheduleLock) {
+                bucketOf(playerId).add(playerId);
+            }
+        }
+    }
+
+    /**
+     * Queue the moment the player's playtime reaches their next unprocessed cycle.
+     * Playtime is whole seconds, so this may fire up to a second early; the
+     * check then finds nothing to do and queues it again. Caller holds scheduleLock.
+     */
+    private void scheduleMilestone(UUID playerId, long now) {
+        PlayerData data = plugin.getPvPManager().getPlayerData(playerId);
+        long threshold = (data.getProcessedCycles() + 1L) * cycleSeconds;
+        long due = now + Math.max(0, threshold - data.getTotalPlaytimeSeconds(now)) * 1000L;
+        long generation = nextGeneration++;
+        milestoneGenerations.put(playerId, generation);
+        milestones.add(new Milestone(due, playerId, generation));
+
+        // Entries of players who left or were rescheduled pile up until they
+        // come due; rebuild once they clearly outnumber the live ones
+        if (milestones.size() > 2 * milestoneGenerations.size() + 64) {
+            milestones.removeIf(m -> !isCurrent(m));
+        }
+    }
+
+    private boolean isCurrent(Milestone milestone) {
+        Long generation = milestoneGenerations.get(milestone.playerId());
+        return generation != null && generation == milestone.generation();
     }
     
     /**
@@ -90,36 +251,106 @@ public class PlaytimeManager {
         // No-op: throttling removed since task already runs at 1-second intervals
     }
 
+    // The stable bucket a player's per-second work runs in; caller holds scheduleLock
+    private Set<UUID> bucketOf(UUID playerId) {
+        return debtorBuckets.get(Math.floorMod(playerId.hashCode(), BUCKETS));
+    }
+
+    /**
+     * Playtime itself accrues lazily and milestones wait in a queue, so a tick
+     * only touches players whose milestone is due or who have debt to count down.
+     * Unsharded, all buckets run back to back once per second.
+     */
     private void updatePlayerTimesAndDebt() {
         // Cache online player count once per tick instead of reading multiple times
         int onlinePlayerCount = Bukkit.getOnlinePlayers().size();
+        synchronized (scheduleLock) {
+            processDueMilestones(System.currentTimeMillis());
+            for (int bucket = 0; bucket < BUCKETS; bucket++) processBucket(bucket, onlinePlayerCount);
+        }
+    }
+
+    // Caller holds scheduleLock
+    private void processDueMilestones(long now) {
+        while (!milestones.isEmpty() && milestones.peek().dueMillis() <= now) {
+            Milestone milestone = milestones.poll();
+            if (!isCurrent(milestone)) continue;
+            Player player = Bukkit.getPlayer(milestone.playerId());
+            if (player == null) {
+                milestoneGenerations.remove(milestone.playerId());
+                continue;
+            }
+            checkAndApplyCycleMilestones(player, plugin.getPvPManager().getPlayerData(milestone.playerId()), now);
+            scheduleMilestone(milestone.playerId(), now);
+        }
+    }
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            PlayerData data = plugin.getPvPManager().getPlayerData(player.getUniqueId());
-            data.setTotalPlaytimeSeconds(data.getTotalPlaytimeSeconds() + 1);
-            checkAndApplyCycleMilestones(player, data);
+    // Caller holds scheduleLock
+    private void processBucket(int bucket, int onlinePlayerCount) {
+        long start = System.nanoTime();
+        Iterator<UUID> it = debtorBuckets.get(bucket).iterator();
+        while (it.hasNext()) {
+            UUID playerId = it.next();
+            Player player = Bukkit.getPlayer(playerId);
+            PlayerData data = plugin.getPvPManager().getPlayerData(playerId);
+            // Bypassed players keep their debt but don't count it down; resumeDebt re-adds them
+            if (player == null || data.getPvpDebtSeconds() <= 0 || plugin.getPvPManager().hasBypass(player)) {
+                it.remove();
+                continue;
+            }
             decrementPlayerDebt(player, data, onlinePlayerCount);
         }
+        long elapsed = System.nanoTime() - start;
+        bucketLastNanos[bucket] = elapsed;
+        bucketAvgNanos[bucket] += (elapsed - bucketAvgNanos[bucket]) / 8;
+    }
+
+    public boolean isRegionized() {
+        return regionized;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public int getBucketCount() {
+        return BUCKETS;
+    }
+
+    public int getBucketSize(int bucket) {
+        synchronized (scheduleLock) {
+            return debtorBuckets.get(bucket).size();
+        }
+    }
+
+    public long getBucketLastNanos(int bucket) {
+        return bucketLastNanos[bucket];
+    }
+
+    // exponential moving average over roughly the last 8 runs
+    public long getBucketAverageNanos(int bucket) {
+        return bucketAvgNanos[bucket];
     }
 
-    private void checkAndApplyCycleMilestones(Player player, PlayerData data) {
-        int currentCycles = (int) (data.getTotalPlaytimeSeconds() / cycleSeconds);
+    private void checkAndApplyCycleMilestones(Player player, PlayerData data, long now) {
+        int currentCycles = (int) (data.getTotalPlaytimeSeconds(now) / cycleSeconds);
         if (currentCycles <= data.getProcessedCycles()) return;
 
         int newCycles = currentCycles - data.getProcessedCycles();
         data.setProcessedCycles(currentCycles);
 
-        if (!player.hasPermission("pvptoggle.bypass")) {
+        if (!plugin.getPvPManager().hasBypass(player)) {
             long additionalDebt = newCycles * forcedMinutes * 60L;
             data.setPvpDebtSeconds(data.getPvpDebtSeconds() + additionalDebt);
-            MessageUtil.send(player,
-                    "&c&l⚔ Forced PvP activated! &7Duration: &f"
-                            + MessageUtil.formatTime(data.getPvpDebtSeconds()));
+            // Reached from the tick, which holds scheduleLock; Folia has no buckets
+            if (!regionized) bucketOf(player.getUniqueId()).add(player.getUniqueId());
+            plugin.getMessages().send(player, Message.DEBT_STARTED,
+                    MessageUtil.formatTime(data.getPvpDebtSeconds()));
         }
     }
 
     private void decrementPlayerDebt(Player player, PlayerData data, int onlinePlayerCount) {
-        if (data.getPvpDebtSeconds() <= 0 || player.hasPermission("pvptoggle.bypass")) return;
+        if (data.getPvpDebtSeconds() <= 0 || plugin.getPvPManager().hasBypass(player)) return;
 
         if (onlinePlayerCount >= 2) {
             data.setPvpDebtSeconds(data.getPvpDebtSeconds() - 1);
@@ -127,17 +358,12 @@ public class PlaytimeManager {
 
         if (data.getPvpDebtSeconds() <= 0) {
             data.setPvpDebtSeconds(0);
-            MessageUtil.send(player, "&a&l⚔ Your forced PvP period has ended!");
-            MessageUtil.sendActionBar(player, "&a✓ Forced PvP ended");
+            plugin.getMessages().send(player, Message.DEBT_ENDED);
+            plugin.getActionBars().show(player, Channel.DEBT, Message.DEBT_ENDED_ACTIONBAR);
         } else {
-            // Action bar shown once per second (task runs every 20 ticks / 1 second)
-            String status = (onlinePlayerCount >= 2)
-                    ? "&c⚔ Forced PvP"
-                    : "&e⚔ Forced PvP &7(paused — solo)";
-            MessageUtil.sendActionBar(player,
-                    status + " &7| &f"
-                            + MessageUtil.formatTime(data.getPvpDebtSeconds())
-                            + " &7remaining");
+            // Refreshed once per second, before the entry runs out
+            Message status = (onlinePlayerCount >= 2) ? Message.DEBT_ACTIONBAR : Message.DEBT_PAUSED_ACTIONBAR;
+            plugin.getActionBars().show(player, Channel.DEBT, status, MessageUtil.formatTime(data.getPvpDebtSeconds()));
         }
     }
 }
@@ -1,45 +1,154 @@
 package com.pvptoggle.manager;
 
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.pvptoggle.PvPTogglePlugin;
 import com.pvptoggle.model.PlayerData;
+import com.pvptoggle.model.PlayerSession;
+import com.pvptoggle.model.PolicyInput;
+import com.pvptoggle.storage.JournalPlayerStorage;
+import com.pvptoggle.storage.MappedPlayerStorage;
+import com.pvptoggle.storage.PlayerStorage;
+import com.pvptoggle.storage.YamlPlayerStorage;
 import com.pvptoggle.util.DebugUtil;
-import com.pvptoggle.util.YamlUtil;
+import com.pvptoggle.util.TaskScheduler.Task;
 
 public class PvPManager {
 
     private final PvPTogglePlugin plugin;
     private final Map<UUID, PlayerData> playerDataMap = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();   // online players only
+    // Players whose data changed since it was last saved; filled by PlayerData, drained by the engine
+    private final Set<UUID> changedPlayers = ConcurrentHashMap.newKeySet();
     
-    // Synchronize writes to player data file
-    private final Object saveLock = new Object();
+    // Picked once on load; switching storage.type needs a restart
+    private volatile PlayerStorage storage;
+    private Task flushTask;
+    // Online players' running sessions are folded into their records this often
+    private volatile long sessionCheckpointMillis;
+    private volatile long lastSessionCheckpointMillis = System.currentTimeMillis();
+
+    private boolean debugEnabled; // Cached debug flag
+    private Task permissionTask;
+    private volatile PvPPolicy policy;
 
     public PvPManager(PvPTogglePlugin plugin) {
         this.plugin = plugin;
+        loadConfigValues();
+    }
+
+    /**
+     * Load and cache config values (called on plugin enable and reload)
+     */
+    public void loadConfigValues() {
+        this.debugEnabled = plugin.getConfig().getBoolean("debug", false);
+
+        this.policy = PvPPolicy.compile(plugin.getConfig().getConfigurationSection("world-rules"), plugin.getLogger());
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            plugin.getTaskScheduler().run(player, () -> refreshWorldRules(player));
+        }
+
+        if (storage != null) {
+            storage.loadConfigValues();
+            restartFlushTask();
+        }
+        this.sessionCheckpointMillis = Math.max(0, plugin.getConfig().getInt("save-compaction-interval", 60)) * 60_000L;
+
+        int refreshSeconds = plugin.getConfig().getInt("permission-refresh-interval", 30);
+        if (refreshSeconds < 0) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid negative value for ''permission-refresh-interval'' ({0}); using 0 instead.", refreshSeconds);
+            refreshSeconds = 0;
+        }
+        if (permissionTask != null) {
+            permissionTask.cancel();
+            permissionTask = null;
+        }
+        if (refreshSeconds > 0) {
+            long ticks = refreshSeconds * 20L;
+            permissionTask = plugin.getTaskScheduler().runTimer(this::refreshAllPermissions, ticks, ticks);
+        }
+    }
+
+    /**
+     * Re-read the permissions cached in a player's session. Hot paths only ever
+     * read the cached flags, since a hasPermission call can be expensive.
+     */
+    public void refreshPermissions(Player player) {
+        PlayerSession session = getSession(player.getUniqueId());
+        boolean hadBypass = session.isPermissionsLoaded() && session.hasBypass();
+        boolean bypass = player.hasPermission("pvptoggle.bypass");
+        session.setPermissions(bypass, player.hasPermission("pvptoggle.admin"));
+        // Debt countdown skips bypassed players; pick it back up once they lose it
+        if (hadBypass && !bypass) plugin.getPlaytimeManager().resumeDebt(player.getUniqueId());
+    }
+
+    /**
+     * Re-resolve the world rules for the world the player is in (join, world change, reload)
+     */
+    public void refreshWorldRules(Player player) {
+        getSession(player.getUniqueId()).setWorldRules(policy.worldInputs(player.getWorld().getName()));
+    }
+
+    // Each player is re-read on their own thread, which on Folia is their region's
+    public void refreshAllPermissions() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            plugin.getTaskScheduler().run(player, () -> refreshPermissions(player));
+        }
+    }
+
+    // cached pvptoggle.bypass
+    public boolean hasBypass(Player player) {
+        PlayerSession session = getSession(player.getUniqueId());
+        if (!session.isPermissionsLoaded()) refreshPermissions(player);
+        return session.hasBypass();
+    }
+
+    // cached pvptoggle.admin
+    public boolean isAdmin(Player player) {
+        PlayerSession session = getSession(player.getUniqueId());
+        if (!session.isPermissionsLoaded()) refreshPermissions(player);
+        return session.isAdmin();
     }
 
     // grab or make player data
     public PlayerData getPlayerData(UUID playerUuid) {
+        PlayerData existing = playerDataMap.get(playerUuid);
+        if (existing != null) return existing;
         return playerDataMap.computeIfAbsent(playerUuid, k -> {
             PlayerData data = new PlayerData();
             data.setPvpEnabled(plugin.getConfig().getBoolean("default-pvp-state", false));
+            data.trackChanges(playerUuid, changedPlayers);
             return data;
         });
     }
 
+    // transient state for an online player
+    public PlayerSession getSession(UUID playerUuid) {
+        PlayerSession session = sessions.get(playerUuid);
+        if (session != null) return session;
+        return sessions.computeIfAbsent(playerUuid, k -> new PlayerSession());
+    }
+
+    public void removeSession(UUID playerUuid) {
+        sessions.remove(playerUuid);
+    }
+
     // reset everything for a player
     public void resetPlayerData(UUID playerUuid) {
         PlayerData data = new PlayerData();
         data.setPvpEnabled(plugin.getConfig().getBoolean("default-pvp-state", false));
+        // An online player keeps accruing from zero
+        if (Bukkit.getPlayer(playerUuid) != null) data.startSession(System.currentTimeMillis());
+        data.trackChanges(playerUuid, changedPlayers);
         playerDataMap.put(playerUuid, data);
     }
 
@@ -48,65 +157,116 @@ public class PvPManager {
         return Collections.unmodifiableMap(playerDataMap);
     }
 
-    public boolean isEffectivePvPEnabled(Player player) {
-        PlayerData data = getPlayerData(player.getUniqueId());
+    /**
+     * @return the player's full policy input mask, see {@link PolicyInput}. The toggle,
+     *         debt, permission, zone, tag and world bits are kept current as they change;
+     *         only stale zone membership (zones or schedules changed) costs a lookup here.
+     */
+    public int getPolicyInputs(Player player) {
+        UUID playerId = player.getUniqueId();
+        PlayerSession session = getSession(playerId);
+        if (!session.isPermissionsLoaded()) refreshPermissions(player);
+        if (!session.isWorldRulesLoaded()) refreshWorldRules(player);
+        ZoneManager zones = plugin.getZoneManager();
+        if (!zones.isSessionCurrent(session)) zones.getPlayerZone(player);
 
-        boolean toggle = data.isPvpEnabled();
-        boolean inZone = plugin.getZoneManager().isInForcedPvPZone(player.getLocation());
-        boolean hasDebt = data.getPvpDebtSeconds() > 0 && !player.hasPermission("pvptoggle.bypass");
+        int inputs = session.getPolicyInputs() | getPlayerData(playerId).getPolicyInputs();
+        if (zones.isGlobalPvPWindow()) inputs |= PolicyInput.GLOBAL_WINDOW;
+        return inputs;
+    }
+
+    public PvPPolicy getPolicy() {
+        return policy;
+    }
 
-        DebugUtil.logDebug(plugin.getConfig(), plugin.getLogger(),
-                "PvP check for {0}: toggle={1}, inZone={2}, hasDebt={3}",
-                player.getName(), toggle, inZone, hasDebt);
+    public boolean isEffectivePvPEnabled(Player player) {
+        int inputs = getPolicyInputs(player);
+        boolean enabled = policy.isEnabled(inputs);
 
-        return toggle || inZone || hasDebt;
+        if (debugEnabled) {
+            DebugUtil.logDebug(plugin.getConfig(), plugin.getLogger(),
+                    "PvP check for {0}: inputs={1}, enabled={2}",
+                    player.getName(), Integer.toBinaryString(inputs), enabled);
+        }
+        return enabled;
     }
 
     public boolean isForcedPvP(Player player) {
-        if (plugin.getZoneManager().isInForcedPvPZone(player.getLocation())) return true;
-        PlayerData data = getPlayerData(player.getUniqueId());
-        return data.getPvpDebtSeconds() > 0 && !player.hasPermission("pvptoggle.bypass");
+        return policy.isForced(getPolicyInputs(player));
+    }
+
+    // forced by a world rule rather than by zones, windows, tags or debt
+    public boolean isWorldForced(Player player) {
+        return (getPolicyInputs(player) & PolicyInput.WORLD_FORCED) != 0;
     }
 
-    // playerdata.yml i/o
+    // player data i/o, through the engine picked by storage.type
 
     public void loadData() {
-        ConfigurationSection players = YamlUtil.loadSection(plugin.getDataFolder(), "playerdata.yml", "players");
-        if (players == null) return;
-
-        for (String uuidStr : players.getKeys(false)) {
-            try {
-                UUID uuid = UUID.fromString(uuidStr);
-                ConfigurationSection section = players.getConfigurationSection(uuidStr);
-                if (section == null) continue;
-
-                PlayerData data = new PlayerData();
-                data.setPvpEnabled(section.getBoolean("pvp-enabled", false));
-                data.setTotalPlaytimeSeconds(section.getLong("total-playtime-seconds", 0));
-                data.setProcessedCycles(section.getInt("processed-cycles", 0));
-                data.setPvpDebtSeconds(section.getLong("pvp-debt-seconds", 0));
-                playerDataMap.put(uuid, data);
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Skipping invalid UUID in playerdata.yml: {0}", uuidStr);
+        storage = createStorage();
+        storage.loadConfigValues();
+        storage.load(playerDataMap);
+        playerDataMap.forEach((playerId, data) -> data.trackChanges(playerId, changedPlayers));
+        restartFlushTask();
+        plugin.getLogger().log(Level.INFO, "Loaded data for {0} players.", playerDataMap.size());
+    }
+
+    private PlayerStorage createStorage() {
+        String type = plugin.getConfig().getString("storage.type", "yaml").toLowerCase(Locale.ROOT);
+        return switch (type) {
+            case "yaml"    -> new YamlPlayerStorage(plugin);
+            case "journal" -> new JournalPlayerStorage(plugin);
+            case "mapped"  -> new MappedPlayerStorage(plugin);
+            default -> {
+                plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''storage.type'' ({0}); using yaml instead.", type);
+                yield new YamlPlayerStorage(plugin);
             }
+        };
+    }
+
+    // Engines that flush more often than the auto-save get their own async timer
+    private void restartFlushTask() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
         }
-        plugin.getLogger().log(Level.INFO, "Loaded data for {0} players.", playerDataMap.size());
+        long ticks = storage.getFlushIntervalTicks();
+        if (ticks > 0) flushTask = plugin.getTaskScheduler().runAsyncTimer(this::flushData, ticks, ticks);
     }
 
+    /**
+     * Persist players whose data changed since the last save. Playtime of a running
+     * session isn't a change by itself; it is folded in every save-compaction-interval
+     * so a crash can't take a whole session with it.
+     */
     public void saveData() {
-        synchronized (saveLock) {
-            YamlConfiguration config = new YamlConfiguration();
-            for (Map.Entry<UUID, PlayerData> entry : playerDataMap.entrySet()) {
-                String path = "players." + entry.getKey().toString();
-                PlayerData data = entry.getValue();
-                config.set(path + ".pvp-enabled",            data.isPvpEnabled());
-                config.set(path + ".total-playtime-seconds", data.getTotalPlaytimeSeconds());
-                config.set(path + ".processed-cycles",       data.getProcessedCycles());
-                config.set(path + ".pvp-debt-seconds",       data.getPvpDebtSeconds());
-            }
-            YamlUtil.saveConfig(config, plugin.getDataFolder(), "playerdata.yml",
-                    plugin.getLogger(), "Failed to save player data");
+        if (storage == null) return;
+        long now = System.currentTimeMillis();
+        if (now - lastSessionCheckpointMillis >= sessionCheckpointMillis) checkpointSessions(now);
+        storage.save(playerDataMap, changedPlayers);
+    }
+
+    // Engine flush timer: online players' playtime goes out with every flush, so a
+    // crash loses at most one flush interval of it
+    private void flushData() {
+        checkpointSessions(System.currentTimeMillis());
+        storage.save(playerDataMap, changedPlayers);
+    }
+
+    // One write per online player who accrued a whole second since the last checkpoint
+    private void checkpointSessions(long now) {
+        lastSessionCheckpointMillis = now;
+        for (UUID playerId : sessions.keySet()) {
+            PlayerData data = playerDataMap.get(playerId);
+            if (data != null) data.checkpointSession(now);
         }
     }
+
+    /**
+     * Final save on disable; the engine decides how little that can be
+     */
+    public void closeStorage() {
+        if (flushTask != null) flushTask.cancel();
+        if (storage != null) storage.close(playerDataMap, changedPlayers);
+    }
 }
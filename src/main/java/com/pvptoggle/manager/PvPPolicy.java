@@ -0,0 +1,111 @@
+package com.pvptoggle.manager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import com.pvptoggle.model.PolicyInput;
+
+/**
+ * Compiled "can these two players fight" rules.
+ *
+ * Every combination of {@link PolicyInput} bits is reduced up front to one of four
+ * player states, and every pair of states to an {@link Outcome}. A decision is then
+ * two array reads, however many rules went into the tables. Per-world rules from
+ * config are resolved to input bits when a player enters a world, not per hit.
+ * Instances are immutable; PvPManager swaps in a new one on reload.
+ */
+public final class PvPPolicy {
+
+    public enum Outcome { ALLOW, ATTACKER_OFF, VICTIM_OFF, WORLD_DISABLED }
+
+    // Player states, two bits each so a pair indexes the outcome table directly
+    private static final int OFF      = 0;
+    private static final int ON       = 1;
+    private static final int FORCED   = 2;
+    private static final int DISABLED = 3;
+
+    private final byte[] states = new byte[1 << PolicyInput.COUNT];
+    private final Outcome[] outcomes = new Outcome[16];
+    private final Map<String, Integer> worldInputs;     // world name -> WORLD_* bits
+
+    private PvPPolicy(Map<String, Integer> worldInputs) {
+        this.worldInputs = worldInputs;
+        for (int inputs = 0; inputs < states.length; inputs++) states[inputs] = (byte) classify(inputs);
+        for (int attacker = 0; attacker < 4; attacker++) {
+            for (int victim = 0; victim < 4; victim++) {
+                outcomes[attacker << 2 | victim] = outcomeFor(attacker, victim);
+            }
+        }
+    }
+
+    /**
+     * @param worlds the {@code world-rules} section (world name -> normal|forced|disabled), may be null
+     */
+    static PvPPolicy compile(ConfigurationSection worlds, Logger logger) {
+        Map<String, Integer> worldInputs = new HashMap<>();
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                String mode = String.valueOf(worlds.getString(world)).toLowerCase(Locale.ROOT);
+                switch (mode) {
+                    case "normal"   -> { /* toggle, zones and debt decide */ }
+                    case "forced"   -> worldInputs.put(world, PolicyInput.WORLD_FORCED);
+                    case "disabled" -> worldInputs.put(world, PolicyInput.WORLD_DISABLED);
+                    default -> logger.log(Level.WARNING,
+                            "[PvPToggle] Invalid world rule ''{0}'' for world ''{1}''; using normal instead.",
+                            new Object[]{mode, world});
+                }
+            }
+        }
+        return new PvPPolicy(Collections.unmodifiableMap(worldInputs));
+    }
+
+    // The rules, evaluated once per input combination when the tables are built
+    private static int classify(int inputs) {
+        if ((inputs & PolicyInput.WORLD_DISABLED) != 0) return DISABLED;
+        boolean debt = (inputs & PolicyInput.DEBT) != 0 && (inputs & PolicyInput.BYPASS) == 0;
+        if (debt || (inputs & (PolicyInput.WORLD_FORCED | PolicyInput.FORCED_ZONE
+                | PolicyInput.GLOBAL_WINDOW | PolicyInput.COMBAT_TAG)) != 0) {
+            return FORCED;
+        }
+        return (inputs & PolicyInput.TOGGLE) != 0 ? ON : OFF;
+    }
+
+    private static Outcome outcomeFor(int attacker, int victim) {
+        if (attacker == DISABLED || victim == DISABLED) return Outcome.WORLD_DISABLED;
+        if (attacker == OFF) return Outcome.ATTACKER_OFF;
+        if (victim == OFF) return Outcome.VICTIM_OFF;
+        return Outcome.ALLOW;
+    }
+
+    public Outcome decide(int attackerInputs, int victimInputs) {
+        return outcomes[states[attackerInputs] << 2 | states[victimInputs]];
+    }
+
+    /**
+     * @return true if a player with these inputs deals and takes PvP damage
+     */
+    public boolean isEnabled(int inputs) {
+        int state = states[inputs];
+        return state == ON || state == FORCED;
+    }
+
+    /**
+     * @return true if PvP is on for a player with these inputs regardless of their toggle
+     */
+    public boolean isForced(int inputs) {
+        return states[inputs] == FORCED;
+    }
+
+    /**
+     * @return the WORLD_* input bits for a world
+     */
+    public int worldInputs(String worldName) {
+        return worldInputs.getOrDefault(worldName, 0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.pvptoggle.manager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Immutable bounding-volume hierarchy over zone bounding boxes.
+ *
+ * Nodes live in flat arrays in depth-first order: an internal node's left child
+ * is the next node and its right child is stored explicitly, and every leaf owns
+ * a contiguous run of {@link #zones}. A point query only descends into boxes that
+ * contain the point, so exact shape tests run for a handful of zones at most.
+ * Queries recurse instead of keeping a stack, so they allocate nothing; depth is
+ * capped at build time.
+ */
+final class ZoneBvh {
+
+    private static final int LEAF_SIZE = 4;
+    private static final int MAX_DEPTH = 32;
+
+    private final PvPZone[] zones;
+    private final int[] bounds;     // minX, minY, minZ, maxX, maxY, maxZ per node
+    private final int[] right;      // right child of an internal node, -1 for leaves
+    private final int[] first;      // first zone of a leaf
+    private final int[] count;      // zones in a leaf, 0 for internal nodes
+    private int nodeCount;
+
+    ZoneBvh(List<PvPZone> source) {
+        this.zones = source.toArray(new PvPZone[0]);
+        int maxNodes = Math.max(1, 2 * zones.length);
+        this.bounds = new int[maxNodes * 6];
+        this.right = new int[maxNodes];
+        this.first = new int[maxNodes];
+        this.count = new int[maxNodes];
+        if (zones.length > 0) build(0, zones.length, 0);
+    }
+
+    boolean isEmpty() { return zones.length == 0; }
+
+    /**
+     * @return the first zone active at {@code minuteOfWeek} whose exact shape contains the block, or null
+     */
+    PvPZone find(int x, int y, int z, int minuteOfWeek) {
+        if (zones.length == 0) return null;
+        return find(0, x, y, z, minuteOfWeek);
+    }
+
+    private PvPZone find(int node, int x, int y, int z, int minuteOfWeek) {
+        int b = node * 6;
+        if (x < bounds[b] || y < bounds[b + 1] || z < bounds[b + 2]
+                || x > bounds[b + 3] || y > bounds[b + 4] || z > bounds[b + 5]) {
+            return null;
+        }
+        if (count[node] > 0) {
+            for (int i = first[node]; i < first[node] + count[node]; i++) {
+                if (zones[i].contains(x, y, z) && zones[i].isActiveAt(minuteOfWeek)) return zones[i];
+            }
+            return null;
+        }
+        PvPZone found = find(node + 1, x, y, z, minuteOfWeek);
+        return found != null ? found : find(right[node], x, y, z, minuteOfWeek);
+    }
+
+    /**
+     * Visit every zone whose bounding box overlaps the x/z rectangle, at any height.
+     */
+    void forEachOverlapping(int minX, int minZ, int maxX, int maxZ, Consumer<PvPZone> visitor) {
+        if (zones.length == 0) return;
+        forEachOverlapping(0, minX, minZ, maxX, maxZ, visitor);
+    }
+
+    private void forEachOverlapping(int node, int minX, int minZ, int maxX, int maxZ, Consumer<PvPZone> visitor) {
+        int b = node * 6;
+        if (maxX < bounds[b] || maxZ < bounds[b + 2] || minX > bounds[b + 3] || minZ > bounds[b + 5]) {
+            return;
+        }
+        if (count[node] > 0) {
+            for (int i = first[node]; i < first[node] + count[node]; i++) {
+                PvPZone zone = zones[i];
+                if (maxX >= zone.getX1() && minX <= zone.getX2() && maxZ >= zone.getZ1() && minZ <= zone.getZ2()) {
+                    visitor.accept(zone);
+                }
+            }
+            return;
+        }
+        forEachOverlapping(node + 1, minX, minZ, maxX, maxZ, visitor);
+        forEachOverlapping(right[node], minX, minZ, maxX, maxZ, visitor);
+    }
+
+    // Top-down median split on the longest axis of the node's box
+    private int build(int from, int to, int depth) {
+        int node = nodeCount++;
+        int b = node * 6;
+        bounds[b] = bounds[b + 1] = bounds[b + 2] = Integer.MAX_VALUE;
+        bounds[b + 3] = bounds[b + 4] = bounds[b + 5] = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            PvPZone zone = zones[i];
+            bounds[b]     = Math.min(bounds[b], zone.getX1());
+            bounds[b + 1] = Math.min(bounds[b + 1], zone.getY1());
+            bounds[b + 2] = Math.min(bounds[b + 2], zone.getZ1());
+            bounds[b + 3] = Math.max(bounds[b + 3], zone.getX2());
+            bounds[b + 4] = Math.max(bounds[b + 4], zone.getY2());
+            bounds[b + 5] = Math.max(bounds[b + 5], zone.getZ2());
+        }
+
+        // Depth is capped to bound query recursion; a leaf may exceed LEAF_SIZE then
+        if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH) {
+            right[node] = -1;
+            first[node] = from;
+            count[node] = to - from;
+            return node;
+        }
+
+        long spanX = (long) bounds[b + 3] - bounds[b];
+        long spanY = (long) bounds[b + 4] - bounds[b + 1];
+        long spanZ = (long) bounds[b + 5] - bounds[b + 2];
+        Comparator<PvPZone> byCenter;
+        if (spanX >= spanY && spanX >= spanZ) {
+            byCenter = Comparator.comparingLong(zone -> (long) zone.getX1() + zone.getX2());
+        } else if (spanZ >= spanY) {
+            byCenter = Comparator.comparingLong(zone -> (long) zone.getZ1() + zone.getZ2());
+        } else {
+            byCenter = Comparator.comparingLong(zone -> (long) zone.getY1() + zone.getY2());
+        }
+        Arrays.sort(zones, from, to, byCenter);
+
+        int mid = (from + to) >>> 1;
+        build(from, mid, depth + 1);
+        right[node] = build(mid, to, depth + 1);
+        return node;
+    }
+}
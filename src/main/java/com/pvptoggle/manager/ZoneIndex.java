@@ -0,0 +1,402 @@
+package com.pvptoggle.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Spatial index over the zones of a single world.
+ *
+ * Two structures back a lookup:
+ * <ul>
+ *   <li>a classification map that marks every 16x16x16 chunk section as fully
+ *       outside all zones, fully inside one, or on a zone boundary. It is stored
+ *       as one long per chunk (2 bits x 32 sections) in pages of 32x32 chunks,
+ *       only for regions a zone touches; pages where every chunk is identical
+ *       collapse to a single long.</li>
+ *   <li>a grid of candidate zones in 64x64 block cells, consulted only for
+ *       boundary sections. Zones spanning more than {@link #MAX_BUCKETS_PER_ZONE}
+ *       cells go into a {@link ZoneBvh} over their bounding boxes instead.</li>
+ * </ul>
+ * Cylinders and polygons only mark the chunks their footprint reaches, and a
+ * section counts as inside only where the exact shape covers the whole column.
+ * Scheduled zones are never marked inside, since whether they apply depends on
+ * the time; their sections are boundary and resolved per lookup.
+ * Instances are immutable. Adding or removing a zone derives a new index that
+ * only recomputes the chunks under that zone; each instance carries a unique
+ * generation that result caches are validated against.
+ */
+final class ZoneIndex {
+
+    static final int OUTSIDE  = 0;
+    static final int INSIDE   = 1;
+    static final int BOUNDARY = 2;
+
+    // Candidate grid cells are 64x64 blocks (4x4 chunks); the classification map
+    // already settles everything but boundary sections, so coarse cells are enough
+    private static final int CELL_SHIFT = 6;
+
+    // Zones covering more grid cells than this are kept in a BVH
+    // instead of being copied into thousands of buckets
+    private static final int MAX_BUCKETS_PER_ZONE = 4096;
+
+    // Classified sections start at y = -64; anything outside the 32 tracked
+    // sections is always treated as boundary and tested exactly
+    private static final int MIN_SECTION = -4;
+    private static final int SECTIONS = 32;
+
+    // Classification pages cover 32x32 chunks
+    private static final int PAGE_SHIFT = 5;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final PvPZone[] NO_ZONES = new PvPZone[0];
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    private final String worldName;
+    private final List<PvPZone> zones;                 // this world's zones only
+    private final Map<Long, PvPZone[]> grid;           // kept for incremental updates
+    private final Map<Long, long[]> pages;             // kept for incremental updates
+    private final LongTable<PvPZone[]> gridTable;
+    private final LongTable<long[]> pageTable;
+    private final ZoneBvh oversized;
+    private final ZoneBvh tree;                        // every zone, for footprint queries
+
+    private ZoneIndex(String worldName, List<PvPZone> zones, Map<Long, PvPZone[]> grid, Map<Long, long[]> pages) {
+        this.worldName = worldName;
+        this.zones = zones;
+        this.grid = grid;
+        this.pages = pages;
+        this.gridTable = new LongTable<>(grid, PvPZone[].class);
+        this.pageTable = new LongTable<>(pages, long[].class);
+        this.oversized = new ZoneBvh(zones.stream().filter(ZoneIndex::isOversized).toList());
+        this.tree = new ZoneBvh(zones);
+    }
+
+    /**
+     * Build an index from the zones that belong to {@code worldName}.
+     * Zones from other worlds in the collection are ignored.
+     */
+    static ZoneIndex build(String worldName, Collection<PvPZone> zones) {
+        List<PvPZone> worldZones = new ArrayList<>();
+        for (PvPZone zone : zones) {
+            if (zone.getWorldName().equals(worldName)) worldZones.add(zone);
+        }
+
+        Map<Long, List<PvPZone>> buckets = new HashMap<>();
+        Map<Long, long[]> pages = new HashMap<>();
+        for (PvPZone zone : worldZones) {
+            if (!isOversized(zone)) {
+                forEachCell(zone, key -> buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(zone));
+            }
+            classify(pages, zone);
+        }
+
+        Map<Long, PvPZone[]> grid = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, list) -> grid.put(key, list.toArray(NO_ZONES)));
+        pages.replaceAll((key, page) -> compress(page));
+        return new ZoneIndex(worldName, worldZones, grid, pages);
+    }
+
+    /**
+     * Derive an index with one more zone, recomputing only the chunks it covers.
+     */
+    ZoneIndex withZone(PvPZone zone) {
+        List<PvPZone> newZones = new ArrayList<>(zones);
+        newZones.add(zone);
+
+        Map<Long, PvPZone[]> newGrid = new HashMap<>(grid);
+        if (!isOversized(zone)) {
+            forEachCell(zone, key -> newGrid.merge(key, new PvPZone[]{zone}, ZoneIndex::concat));
+        }
+
+        Map<Long, long[]> newPages = new HashMap<>(pages);
+        Map<Long, long[]> touched = expandPages(newPages, zone);
+        classify(touched, zone);
+        touched.forEach((key, page) -> newPages.put(key, compress(page)));
+        return new ZoneIndex(worldName, newZones, newGrid, newPages);
+    }
+
+    /**
+     * Derive an index without a zone. The chunks it covered are reclassified
+     * from the remaining zones that overlap its footprint.
+     */
+    ZoneIndex withoutZone(PvPZone zone) {
+        List<PvPZone> newZones = new ArrayList<>(zones);
+        if (!newZones.remove(zone)) return this;
+
+        Map<Long, PvPZone[]> newGrid = new HashMap<>(grid);
+        if (!isOversized(zone)) {
+            forEachCell(zone, cellKey -> newGrid.computeIfPresent(cellKey, (key, bucket) -> {
+                PvPZone[] remaining = Arrays.stream(bucket).filter(z -> z != zone).toArray(PvPZone[]::new);
+                return remaining.length == 0 ? null : remaining;
+            }));
+        }
+
+        Map<Long, long[]> newPages = new HashMap<>(pages);
+        Map<Long, long[]> touched = expandPages(newPages, zone);
+        forEachChunk(zone, (cx, cz) -> {
+            long[] page = touched.get(pageKey(cx >> PAGE_SHIFT, cz >> PAGE_SHIFT));
+            page[pageSlot(cx, cz)] = 0;
+        });
+        tree.forEachOverlapping(zone.getX1() & ~15, zone.getZ1() & ~15, zone.getX2() | 15, zone.getZ2() | 15,
+                other -> { if (other != zone) classify(touched, other, zone); });
+        // Emptied pages stay (one long each) since zones above the tracked
+        // sections still rely on the page being present to be tested
+        touched.forEach((key, page) -> newPages.put(key, compress(page)));
+        return new ZoneIndex(worldName, newZones, newGrid, newPages);
+    }
+
+    /**
+     * Classify the chunk section holding a block.
+     * @return {@link #OUTSIDE}, {@link #INSIDE} or {@link #BOUNDARY}
+     */
+    int classify(int x, int y, int z) {
+        int section = (y >> 4) - MIN_SECTION;
+        int cx = x >> 4;
+        int cz = z >> 4;
+        long[] page = pageTable.get(pageKey(cx >> PAGE_SHIFT, cz >> PAGE_SHIFT));
+        if (page == null) return OUTSIDE;
+        if (section < 0 || section >= SECTIONS) return BOUNDARY;
+
+        long cell = page.length == 1 ? page[0] : page[pageSlot(cx, cz)];
+        long bit = 1L << section;
+        if ((cell & (bit << SECTIONS)) != 0) return INSIDE;
+        return (cell & bit) != 0 ? BOUNDARY : OUTSIDE;
+    }
+
+    /**
+     * @param minuteOfWeek time to evaluate zone schedules at
+     * @return the first active zone containing the block, or null if none does
+     */
+    PvPZone find(int x, int y, int z, int minuteOfWeek) {
+        if (classify(x, y, z) == OUTSIDE) return null;
+        return findCandidate(x, y, z, minuteOfWeek);
+    }
+
+    /**
+     * @return zones whose footprint may reach the x/z block rectangle, at any height
+     */
+    PvPZone[] zonesNear(int minX, int minZ, int maxX, int maxZ) {
+        List<PvPZone> found = new ArrayList<>(2);
+        tree.forEachOverlapping(minX, minZ, maxX, maxZ, zone -> {
+            if (zone.intersectsArea(minX, minZ, maxX, maxZ)) found.add(zone);
+        });
+        return found.isEmpty() ? NO_ZONES : found.toArray(NO_ZONES);
+    }
+
+    long getGeneration()  { return generation; }
+    boolean isEmpty()     { return zones.isEmpty(); }
+
+    /**
+     * Test the candidate zones of the block's chunk without consulting the
+     * classification map; for callers that already classified it as boundary.
+     */
+    PvPZone findCandidate(int x, int y, int z, int minuteOfWeek) {
+        PvPZone[] bucket = gridTable.get(chunkKey(x >> CELL_SHIFT, z >> CELL_SHIFT));
+        if (bucket != null) {
+            for (PvPZone zone : bucket) {
+                if (zone.contains(x, y, z) && zone.isActiveAt(minuteOfWeek)) return zone;
+            }
+        }
+        return oversized.isEmpty() ? null : oversized.find(x, y, z, minuteOfWeek);
+    }
+
+    // classification building
+
+    private static void classify(Map<Long, long[]> pages, PvPZone zone) {
+        int minCx = zone.getX1() >> 4;
+        int maxCx = zone.getX2() >> 4;
+        int minCz = zone.getZ1() >> 4;
+        int maxCz = zone.getZ2() >> 4;
+        for (int px = minCx >> PAGE_SHIFT; px <= maxCx >> PAGE_SHIFT; px++) {
+            for (int pz = minCz >> PAGE_SHIFT; pz <= maxCz >> PAGE_SHIFT; pz++) {
+                long[] page = pages.computeIfAbsent(pageKey(px, pz), k -> new long[PAGE_SIZE * PAGE_SIZE]);
+                int fromCx = Math.max(minCx, px << PAGE_SHIFT);
+                int toCx = Math.min(maxCx, (px << PAGE_SHIFT) + PAGE_MASK);
+                int fromCz = Math.max(minCz, pz << PAGE_SHIFT);
+                int toCz = Math.min(maxCz, (pz << PAGE_SHIFT) + PAGE_MASK);
+                for (int cx = fromCx; cx <= toCx; cx++) {
+                    for (int cz = fromCz; cz <= toCz; cz++) {
+                        page[pageSlot(cx, cz)] |= cellMask(zone, cx, cz);
+                    }
+                }
+            }
+        }
+    }
+
+    // Re-apply a zone's masks, limited to the chunks under another zone's footprint
+    private static void classify(Map<Long, long[]> pages, PvPZone zone, PvPZone within) {
+        int minCx = Math.max(zone.getX1(), within.getX1()) >> 4;
+        int maxCx = Math.min(zone.getX2(), within.getX2()) >> 4;
+        int minCz = Math.max(zone.getZ1(), within.getZ1()) >> 4;
+        int maxCz = Math.min(zone.getZ2(), within.getZ2()) >> 4;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                long[] page = pages.get(pageKey(cx >> PAGE_SHIFT, cz >> PAGE_SHIFT));
+                if (page != null) page[pageSlot(cx, cz)] |= cellMask(zone, cx, cz);
+            }
+        }
+    }
+
+    /**
+     * Copy the pages under a zone's footprint into writable full-size arrays.
+     * @return the writable pages, keyed like {@code pages}
+     */
+    private static Map<Long, long[]> expandPages(Map<Long, long[]> pages, PvPZone zone) {
+        Map<Long, long[]> touched = new HashMap<>();
+        for (int px = zone.getX1() >> 4 >> PAGE_SHIFT; px <= zone.getX2() >> 4 >> PAGE_SHIFT; px++) {
+            for (int pz = zone.getZ1() >> 4 >> PAGE_SHIFT; pz <= zone.getZ2() >> 4 >> PAGE_SHIFT; pz++) {
+                long key = pageKey(px, pz);
+                long[] page = pages.get(key);
+                long[] copy = new long[PAGE_SIZE * PAGE_SIZE];
+                if (page != null && page.length == 1) {
+                    Arrays.fill(copy, page[0]);
+                } else if (page != null) {
+                    System.arraycopy(page, 0, copy, 0, copy.length);
+                }
+                touched.put(key, copy);
+            }
+        }
+        return touched;
+    }
+
+    /**
+     * Masks for one zone in one chunk column: the low 32 bits flag sections the
+     * zone touches, the high 32 bits flag sections it covers completely.
+     */
+    private static long cellMask(PvPZone zone, int cx, int cz) {
+        int minX = cx << 4;
+        int minZ = cz << 4;
+        if (!zone.intersectsArea(minX, minZ, minX + 15, minZ + 15)) return 0;
+        long touched = sectionBits(zone.getY1() >> 4, zone.getY2() >> 4);
+        if (zone.getSchedule() != null) return touched;
+        if (!zone.coversArea(minX, minZ, minX + 15, minZ + 15)) return touched;
+        long inside = sectionBits((zone.getY1() + 15) >> 4, ((zone.getY2() + 1) >> 4) - 1);
+        return touched | (inside << SECTIONS);
+    }
+
+    private static long sectionBits(int fromSection, int toSection) {
+        int from = Math.max(fromSection - MIN_SECTION, 0);
+        int to = Math.min(toSection - MIN_SECTION, SECTIONS - 1);
+        if (from > to) return 0;
+        return ((1L << (to - from + 1)) - 1) << from;
+    }
+
+    private static long[] compress(long[] page) {
+        if (page.length == 1) return page;
+        long first = page[0];
+        for (long cell : page) {
+            if (cell != first) return page;
+        }
+        return new long[]{first};
+    }
+
+    // helpers
+
+    private interface ChunkVisitor {
+        void visit(int chunkX, int chunkZ);
+    }
+
+    private static void forEachChunk(PvPZone zone, ChunkVisitor visitor) {
+        for (int cx = zone.getX1() >> 4; cx <= zone.getX2() >> 4; cx++) {
+            for (int cz = zone.getZ1() >> 4; cz <= zone.getZ2() >> 4; cz++) {
+                visitor.visit(cx, cz);
+            }
+        }
+    }
+
+    private interface CellVisitor {
+        void visit(long cellKey);
+    }
+
+    private static void forEachCell(PvPZone zone, CellVisitor visitor) {
+        int cellSize = 1 << CELL_SHIFT;
+        for (int gx = zone.getX1() >> CELL_SHIFT; gx <= zone.getX2() >> CELL_SHIFT; gx++) {
+            for (int gz = zone.getZ1() >> CELL_SHIFT; gz <= zone.getZ2() >> CELL_SHIFT; gz++) {
+                int minX = gx << CELL_SHIFT;
+                int minZ = gz << CELL_SHIFT;
+                if (zone.intersectsArea(minX, minZ, minX + cellSize - 1, minZ + cellSize - 1)) {
+                    visitor.visit(chunkKey(gx, gz));
+                }
+            }
+        }
+    }
+
+    private static boolean isOversized(PvPZone zone) {
+        long span = (long) ((zone.getX2() >> CELL_SHIFT) - (zone.getX1() >> CELL_SHIFT) + 1)
+                * ((zone.getZ2() >> CELL_SHIFT) - (zone.getZ1() >> CELL_SHIFT) + 1);
+        return span > MAX_BUCKETS_PER_ZONE;
+    }
+
+    private static PvPZone[] concat(PvPZone[] a, PvPZone[] b) {
+        PvPZone[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        return merged;
+    }
+
+    private static int pageSlot(int chunkX, int chunkZ) {
+        return ((chunkX & PAGE_MASK) << PAGE_SHIFT) | (chunkZ & PAGE_MASK);
+    }
+
+    private static long pageKey(int pageX, int pageZ) {
+        return chunkKey(pageX, pageZ);
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        // Multiplying by an odd constant is a bijection, and it keeps Long.hashCode()
+        // (which would otherwise be chunkX ^ chunkZ) from piling diagonals into one bin
+        return (((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Immutable open-addressing table from long keys to values, so lookups
+     * don't box the key. A null value marks an empty slot.
+     */
+    private static final class LongTable<V> {
+        private final long[] keys;
+        private final V[] values;
+        private final int mask;
+
+        @SuppressWarnings("unchecked")
+        LongTable(Map<Long, V> source, Class<V> valueType) {
+            // Power-of-two capacity at <= 50% load keeps probe chains short
+            int capacity = Integer.highestOneBit(Math.max(4, source.size() * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.values = (V[]) java.lang.reflect.Array.newInstance(valueType, capacity);
+            this.mask = capacity - 1;
+            for (Map.Entry<Long, V> entry : source.entrySet()) {
+                long key = entry.getKey();
+                int slot = slot(key);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = entry.getValue();
+            }
+        }
+
+        V get(long key) {
+            int slot = slot(key);
+            V value;
+            while ((value = values[slot]) != null) {
+                if (keys[slot] == key) return value;
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private int slot(long key) {
+            // Keys are already mixed by chunkKey()
+            return (int) (key >>> 32) & mask;
+        }
+    }
+}
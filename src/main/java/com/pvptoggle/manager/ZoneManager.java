@@ -1,76 +1,188 @@
 package com.pvptoggle.manager;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 
 import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.model.PlayerSession;
 import com.pvptoggle.model.PvPZone;
+import com.pvptoggle.model.ZoneSchedule;
+import com.pvptoggle.util.Message;
+import com.pvptoggle.util.TaskScheduler.Task;
 import com.pvptoggle.util.YamlUtil;
 
 public class ZoneManager {
 
     private final PvPTogglePlugin plugin;
-    private final Map<String, PvPZone> zones = new LinkedHashMap<>();      // key = lowercase name
-    private final Map<UUID, Location[]> selections = new HashMap<>();      // [0]=pos1, [1]=pos2
-    
-    // LRU cache for zone lookups with automatic eviction
-    // Wrapped in synchronizedMap for thread-safety across all operations
-    private final Map<String, Boolean> zoneCache = Collections.synchronizedMap(
-        new LinkedHashMap<String, Boolean>(10000, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
-                return size() > 10000; // LRU eviction when cache exceeds 10k entries
-            }
-        }
-    );
-    // Synchronize writes to zone file
+    // Wand state per player; each player's entry is only touched on their own thread
+    private final Map<UUID, Location[]> selections = new ConcurrentHashMap<>();      // [0]=pos1, [1]=pos2
+    private final Map<UUID, List<Location>> polygonPoints = new ConcurrentHashMap<>();
+
+    // Current zone set; replaced wholesale by writers, read without locking
+    private volatile ZoneSnapshot snapshot = ZoneSnapshot.empty();
+
+    // Per-world primitive result caches keyed by packed block coordinates
+    private final Map<String, ZoneResultCache> zoneCaches = new ConcurrentHashMap<>();
+    private int cacheSize;
+
+    // Serializes snapshot writers (create/delete/load); readers never take it
+    private final Object writeLock = new Object();
+    // Serializes zone file writes; never held while publishing a snapshot
     private final Object saveLock = new Object();
+    private long lastSavedVersion = -1;     // guarded by saveLock
+
+    // Which schedules are active. Replaced, with the epoch bumped, only when a
+    // scheduled zone or global PvP window actually switches on or off; caches and
+    // sessions compare epochs instead of being flushed
+    private record Activation(long epoch, boolean globalWindow) {}
+    private volatile Activation activation = new Activation(0, false);
+    // Minute schedules are evaluated at; advances every minute, epoch bump or not
+    private volatile int evaluatedMinute = currentMinuteOfWeek();
+    private volatile ZoneSchedule globalWindows;    // pvp-windows, null if none
+    private volatile boolean recheckActivation;     // set on reload and schedule edits, forces a new epoch
+    private Task activationTask;
 
     public ZoneManager(PvPTogglePlugin plugin) {
         this.plugin = plugin;
+        loadConfigValues();
     }
-    
+
+    /**
+     * Load and cache config values (called on plugin enable and reload)
+     */
+    public void loadConfigValues() {
+        int size = plugin.getConfig().getInt("zone-cache.size", 16384);
+        if (size < 0) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid negative value for ''zone-cache.size'' ({0}); using 0 instead.", size);
+            size = 0;
+        }
+        if (size != cacheSize) {
+            // Caches are recreated with the new size on next lookup
+            zoneCaches.clear();
+        }
+        this.cacheSize = size;
+
+        List<String> windows = plugin.getConfig().getStringList("pvp-windows");
+        ZoneSchedule parsed = null;
+        if (windows != null && !windows.isEmpty()) {
+            try {
+                parsed = ZoneSchedule.parse(windows);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid ''pvp-windows'' ({0}); global PvP windows disabled.", e.getMessage());
+            }
+        }
+        this.globalWindows = parsed;
+        this.recheckActivation = true;
+    }
+
     /**
-     * Clear the zone cache (called when zones are modified)
+     * Start the once-per-second timer that re-evaluates zone schedules and PvP windows
      */
-    private void clearZoneCache() {
-        zoneCache.clear();
+    public void startActivationTimer() {
+        int now = currentMinuteOfWeek();
+        evaluatedMinute = now;
+        activation = new Activation(activation.epoch() + 1, isWindowActive(now));
+        recheckActivation = false;
+        activationTask = plugin.getTaskScheduler().runTimer(this::updateActivation, 20L, 20L);
     }
-    
+
+    public void stopActivationTimer() {
+        if (activationTask != null) activationTask.cancel();
+    }
+
     /**
-     * Generate a cache key for a location
-     * Uses StringBuilder for performance as this is called frequently
+     * Advance the evaluated minute and bump the activation epoch if any scheduled
+     * zone or global window changed state since the previous minute, or if a
+     * recheck was requested. Most calls return after one int compare.
      */
-    private String getLocationCacheKey(Location loc) {
-        World world = loc.getWorld();
-        if (world == null) {
-            return "null:0:0:0"; // Fallback for null worlds
+    private void updateActivation() {
+        Activation current = activation;
+        int previous = evaluatedMinute;
+        int now = currentMinuteOfWeek();
+        boolean forced = recheckActivation;
+        if (now == previous && !forced) return;
+        recheckActivation = false;
+        // Published before the epoch, so nothing is cached under the new epoch
+        // against the old minute
+        evaluatedMinute = now;
+
+        boolean global = isWindowActive(now);
+        boolean changed = forced || global != current.globalWindow();
+        for (PvPZone zone : snapshot.getScheduled()) {
+            if (changed) break;
+            changed = zone.isActiveAt(now) != zone.isActiveAt(previous);
         }
-        String worldName = world.getName();
-        // Pre-allocate capacity: world name plus delimiters and coordinates (30 extra chars for colons and coords)
-        return new StringBuilder(worldName.length() + 30)
-            .append(worldName)
-            .append(':')
-            .append(loc.getBlockX())
-            .append(':')
-            .append(loc.getBlockY())
-            .append(':')
-            .append(loc.getBlockZ())
-            .toString();
+        if (!changed) return;
+
+        activation = new Activation(current.epoch() + 1, global);
+        if (global != current.globalWindow()) {
+            plugin.getMessages().broadcast(global ? Message.PVP_WINDOW_START : Message.PVP_WINDOW_END);
+        }
+        // Players standing still would otherwise only notice on their next step
+        plugin.getZoneListener().refreshPlayers();
+    }
+
+    private boolean isWindowActive(int minuteOfWeek) {
+        ZoneSchedule windows = globalWindows;
+        return windows != null && windows.isActive(minuteOfWeek);
     }
 
+    private static int currentMinuteOfWeek() {
+        return ZoneSchedule.minuteOfWeek(ZonedDateTime.now());
+    }
+
+    /**
+     * @return true while a server-wide PvP window from pvp-windows is open
+     */
+    public boolean isGlobalPvPWindow() {
+        return activation.globalWindow();
+    }
+
+    private ZoneResultCache getZoneCache(String worldName) {
+        ZoneResultCache cache = zoneCaches.get(worldName);
+        if (cache != null) return cache;
+        return zoneCaches.computeIfAbsent(worldName, name -> new ZoneResultCache(cacheSize));
+    }
+
+    /**
+     * @return per-world zone caches, for the admin stats command
+     */
+    public Map<String, ZoneResultCache> getZoneCaches() {
+        return Collections.unmodifiableMap(zoneCaches);
+    }
+
+    /**
+     * @return version of the current zone snapshot, bumped on every zone change
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Drop the index and cache of an unloaded world; they are rebuilt on the next
+     * lookup after it loads again.
+     */
+    public void unloadWorld(String worldName) {
+        snapshot.dropIndex(worldName);
+        zoneCaches.remove(worldName);
+    }
+    
     // set wand selection
     public void setPosition(UUID playerId, int positionIndex, Location loc) {
         selections.computeIfAbsent(playerId, k -> new Location[2])[positionIndex] = loc.clone();
@@ -81,85 +193,271 @@ public class ZoneManager {
         return selections.get(playerId);
     }
 
+    /**
+     * Append a polygon vertex to a player's selection. Starts a new outline if
+     * the point is in a different world than the previous ones.
+     * @return number of vertices now selected
+     */
+    public int addPolygonPoint(UUID playerId, Location loc) {
+        List<Location> points = polygonPoints.computeIfAbsent(playerId, k -> new ArrayList<>());
+        if (!points.isEmpty() && points.get(0).getWorld() != loc.getWorld()) points.clear();
+        points.add(loc.clone());
+        return points.size();
+    }
+
+    public void clearPolygonPoints(UUID playerId) {
+        polygonPoints.remove(playerId);
+    }
+
     public boolean createZone(String name, UUID playerUUID) {
+        return createZone(name, playerUUID, PvPZone.Shape.CUBOID, null);
+    }
+
+    /**
+     * Create a zone from a player's wand selection.
+     * Cuboids span pos1 and pos2. Cylinders are centered on pos1 with pos2 on the rim.
+     * Polygons use the vertices added with {@link #addPolygonPoint}.
+     *
+     * @param heights optional {minY, maxY} overriding the height taken from the selection
+     * @return false if the selection is incomplete or spans worlds
+     */
+    public boolean createZone(String name, UUID playerUUID, PvPZone.Shape shape, int[] heights) {
+        PvPZone zone = shape == PvPZone.Shape.POLYGON
+                ? polygonFromSelection(name, playerUUID, heights)
+                : fromPositions(name, playerUUID, shape, heights);
+        if (zone == null) return false;
+        synchronized (writeLock) {
+            snapshot = snapshot.withZone(name.toLowerCase(), zone);
+        }
+        recheckActivation = true;
+        saveZonesAsync();
+        return true;
+    }
+
+    private PvPZone fromPositions(String name, UUID playerUUID, PvPZone.Shape shape, int[] heights) {
         Location[] selection = selections.get(playerUUID);
-        if (selection == null || selection[0] == null || selection[1] == null) return false;
+        if (selection == null || selection[0] == null || selection[1] == null) return null;
         World worldA = selection[0].getWorld();
         World worldB = selection[1].getWorld();
-        if (worldA == null || worldB == null) return false;
-        if (!worldA.getName().equals(worldB.getName())) return false;
+        if (worldA == null || worldB == null) return null;
+        if (!worldA.getName().equals(worldB.getName())) return null;
 
-        PvPZone zone = new PvPZone(name, worldA.getName(), new PvPZone.Corners(
-                selection[0].getBlockX(), selection[0].getBlockY(), selection[0].getBlockZ(),
-                selection[1].getBlockX(), selection[1].getBlockY(), selection[1].getBlockZ()));
-        synchronized (saveLock) {
-            zones.put(name.toLowerCase(), zone);
-            clearZoneCache(); // Clear cache when zones change
+        int minY = heights != null ? heights[0] : selection[0].getBlockY();
+        int maxY = heights != null ? heights[1] : selection[1].getBlockY();
+        if (shape == PvPZone.Shape.CYLINDER) {
+            long dx = (long) selection[1].getBlockX() - selection[0].getBlockX();
+            long dz = (long) selection[1].getBlockZ() - selection[0].getBlockZ();
+            int radius = (int) Math.round(Math.sqrt((double) (dx * dx + dz * dz)));
+            return PvPZone.cylinder(name, worldA.getName(),
+                    selection[0].getBlockX(), selection[0].getBlockZ(), radius, minY, maxY);
         }
+        return new PvPZone(name, worldA.getName(), new PvPZone.Corners(
+                selection[0].getBlockX(), minY, selection[0].getBlockZ(),
+                selection[1].getBlockX(), maxY, selection[1].getBlockZ()));
+    }
+
+    private PvPZone polygonFromSelection(String name, UUID playerUUID, int[] heights) {
+        List<Location> points = polygonPoints.get(playerUUID);
+        if (points == null || points.size() < 3) return null;
+        World world = points.get(0).getWorld();
+        if (world == null) return null;
+
+        int[] xs = new int[points.size()];
+        int[] zs = new int[points.size()];
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            Location point = points.get(i);
+            xs[i] = point.getBlockX();
+            zs[i] = point.getBlockZ();
+            minY = Math.min(minY, point.getBlockY());
+            maxY = Math.max(maxY, point.getBlockY());
+        }
+        if (heights != null) {
+            minY = heights[0];
+            maxY = heights[1];
+        }
+        return PvPZone.polygon(name, world.getName(), xs, zs, minY, maxY);
+    }
+
+    /**
+     * Replace a zone's schedule without touching its shape.
+     * @param schedule new schedule, or null to make the zone always active
+     * @return false if there is no such zone
+     */
+    public boolean setZoneSchedule(String name, ZoneSchedule schedule) {
+        String key = name.toLowerCase();
+        synchronized (writeLock) {
+            PvPZone zone = snapshot.getZones().get(key);
+            if (zone == null) return false;
+            snapshot = snapshot.withZone(key, zone.withSchedule(schedule));
+        }
+        // Players already standing in the zone are refreshed on the next tick
+        recheckActivation = true;
         saveZonesAsync();
         return true;
     }
 
+    /**
+     * @return whether the zone's schedule currently lets it force PvP
+     */
+    public boolean isZoneActive(PvPZone zone) {
+        return zone.isActiveAt(evaluatedMinute);
+    }
+
     public boolean deleteZone(String name) {
-        boolean removed;
-        synchronized (saveLock) {
-            removed = zones.remove(name.toLowerCase()) != null;
-            if (removed) {
-                clearZoneCache(); // Clear cache when zones change
-            }
+        synchronized (writeLock) {
+            ZoneSnapshot next = snapshot.withoutZone(name.toLowerCase());
+            if (next == snapshot) return false;
+            snapshot = next;
         }
-        if (removed) {
-            saveZonesAsync();
-            return true;
-        }
-        return false;
+        saveZonesAsync();
+        return true;
     }
 
     public PvPZone getZone(String name) {
-        return zones.get(name.toLowerCase());
+        return snapshot.getZones().get(name.toLowerCase());
     }
 
     public Collection<PvPZone> getZones() {
-        synchronized (saveLock) {
-            return Collections.unmodifiableCollection(new java.util.ArrayList<>(zones.values()));
-        }
+        return snapshot.getValues();
     }
 
     public Set<String> getZoneNames() {
-        synchronized (saveLock) {
-            return Collections.unmodifiableSet(
-                    new java.util.LinkedHashSet<>(zones.keySet()));
-        }
+        return snapshot.getZones().keySet();
     }
 
     public boolean isInForcedPvPZone(Location location) {
         if (location == null || location.getWorld() == null) return false;
         
-        // Check cache first
-        String cacheKey = getLocationCacheKey(location);
-        Boolean cached = zoneCache.get(cacheKey);
-        if (cached != null) {
-            return cached;
+        String worldName = location.getWorld().getName();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        ZoneIndex index = snapshot.index(worldName);
+        if (index.isEmpty()) return false;
+        Activation act = activation;
+
+        // Sections wholly outside or inside every zone are answered by the
+        // classification map; only boundary sections go further. Scheduled
+        // zones are never inside, so those answers don't depend on the time
+        int section = index.classify(x, y, z);
+        if (section != ZoneIndex.BOUNDARY) return section == ZoneIndex.INSIDE;
+
+        // Check cache first (blocks outside the packable range bypass it).
+        // Entries computed against an older index or epoch count as misses.
+        ZoneResultCache cache = cacheSize > 0 ? getZoneCache(worldName) : null;
+        long cacheKey = cache != null ? ZoneResultCache.key(x, y, z) : -1;
+        if (cacheKey >= 0) {
+            int cached = cache.get(cacheKey, index.getGeneration(), act.epoch());
+            if (cached != ZoneResultCache.MISS) {
+                return cached == 1;
+            }
         }
         
-        // Not in cache, check all zones with snapshot to avoid CME
-        Collection<PvPZone> zoneSnapshot;
-        synchronized (saveLock) {
-            zoneSnapshot = new java.util.ArrayList<>(zones.values());
+        // Not in cache, only the zones bucketed under this chunk are tested
+        boolean inZone = index.findCandidate(x, y, z, evaluatedMinute) != null;
+        
+        // Cache the result
+        if (cacheKey >= 0) {
+            cache.put(cacheKey, inZone, index.getGeneration(), act.epoch());
         }
         
-        boolean inZone = false;
-        for (PvPZone zone : zoneSnapshot) {
-            if (zone.contains(location)) {
-                inZone = true;
+        return inZone;
+    }
+
+    /**
+     * @return the zone containing the location, or null if it is not in any zone
+     */
+    public PvPZone getZoneAt(Location location) {
+        if (location == null || location.getWorld() == null) return null;
+        ZoneIndex index = snapshot.index(location.getWorld().getName());
+        if (index.isEmpty()) return null;
+        return index.find(location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                evaluatedMinute);
+    }
+
+    /**
+     * Re-evaluate which zone a player stands in. Called by ZoneListener on block
+     * crossings, teleports, respawns and world changes; everything else reads the
+     * stored membership.
+     *
+     * Each session keeps the zones reaching its chunk and the 8 around it, so a
+     * block crossing only tests those few candidates; the shared index is consulted
+     * again only once the player leaves that area or the zones change.
+     *
+     * @return the zone the player was in before this update (may be the same zone)
+     */
+    public PvPZone updatePlayerZone(Player player, Location location) {
+        PlayerSession session = plugin.getPvPManager().getSession(player.getUniqueId());
+        PvPZone previous = session.getCurrentZone();
+        World world = location.getWorld();
+        if (world == null) return previous;
+
+        String worldName = world.getName();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        ZoneSnapshot current = snapshot;
+        long currentVersion = current.getVersion();
+        Activation act = activation;
+        if (session.getZoneVersion() == currentVersion && session.getZoneEpoch() == act.epoch()
+                && session.isAtBlock(worldName, x, y, z)) {
+            return previous;
+        }
+
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        PvPZone[] nearby = session.getNearbyZones(worldName, chunkX, chunkZ, currentVersion);
+        if (nearby == null) {
+            nearby = current.index(worldName).zonesNear(
+                    (chunkX - 1) << 4, (chunkZ - 1) << 4, ((chunkX + 2) << 4) - 1, ((chunkZ + 2) << 4) - 1);
+            session.setNearbyZones(nearby, worldName, chunkX, chunkZ, currentVersion);
+        }
+
+        // Staying inside the same zone is the common case, so it is tested first
+        int minute = evaluatedMinute;
+        PvPZone zone = null;
+        for (PvPZone candidate : nearby) {
+            if (candidate == previous && candidate.contains(x, y, z) && candidate.isActiveAt(minute)) {
+                zone = candidate;
                 break;
             }
         }
-        
-        // Cache the result
-        zoneCache.put(cacheKey, inZone);
-        
-        return inZone;
+        if (zone == null) {
+            for (PvPZone candidate : nearby) {
+                if (candidate.contains(x, y, z) && candidate.isActiveAt(minute)) {
+                    zone = candidate;
+                    break;
+                }
+            }
+        }
+        session.setZone(zone, worldName, x, y, z, currentVersion, act.epoch());
+        return previous;
+    }
+
+    /**
+     * @return the zone the player currently stands in, or null
+     */
+    public PvPZone getPlayerZone(Player player) {
+        PlayerSession session = plugin.getPvPManager().getSession(player.getUniqueId());
+        if (session.getZoneVersion() != snapshot.getVersion() || session.getZoneEpoch() != activation.epoch()) {
+            // Zones or schedules changed (or first lookup) since the membership was computed
+            updatePlayerZone(player, player.getLocation());
+        }
+        return session.getCurrentZone();
+    }
+
+    /**
+     * @return true if the session's zone membership was computed against the current
+     *         zones and schedules, so reading it needs no refresh
+     */
+    public boolean isSessionCurrent(PlayerSession session) {
+        return session.getZoneVersion() == snapshot.getVersion() && session.getZoneEpoch() == activation.epoch();
+    }
+
+    public boolean isInForcedPvPZone(Player player) {
+        return getPlayerZone(player) != null;
     }
 
     // zones.yml i/o
@@ -168,32 +466,125 @@ public class ZoneManager {
         ConfigurationSection section = YamlUtil.loadSection(plugin.getDataFolder(), "zones.yml", "zones");
         if (section == null) return;
 
-        int loadedCount;
+        // Build the full replacement set, then publish it in one swap so
+        // lookups never see a half-loaded registry
+        LinkedHashMap<String, PvPZone> loaded = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            ConfigurationSection zoneSection = section.getConfigurationSection(key);
+            if (zoneSection == null) continue;
+            PvPZone zone = loadZone(key, zoneSection);
+            if (zone != null) loaded.put(key.toLowerCase(), zone);
+        }
+        ZoneSnapshot published;
+        synchronized (writeLock) {
+            published = snapshot.replacing(loaded);
+            snapshot = published;
+        }
+        // What was just read is what the file holds
         synchronized (saveLock) {
-            // Clear existing zones to remove any that were deleted from zones.yml
-            zones.clear();
-            
-            for (String key : section.getKeys(false)) {
-                ConfigurationSection zoneSection = section.getConfigurationSection(key);
-                if (zoneSection == null) continue;
-                zones.put(key.toLowerCase(), new PvPZone(
-                        zoneSection.getString("name", key),
-                        zoneSection.getString("world", "world"),
-                        new PvPZone.Corners(
-                                zoneSection.getInt("x1"), zoneSection.getInt("y1"), zoneSection.getInt("z1"),
-                                zoneSection.getInt("x2"), zoneSection.getInt("y2"), zoneSection.getInt("z2"))
-                ));
+            lastSavedVersion = Math.max(lastSavedVersion, published.getVersion());
+        }
+        plugin.getLogger().log(Level.INFO, "Loaded {0} PvP zone(s).", loaded.size());
+    }
+
+    // Zones written before shapes existed have no 'shape' key and load as cuboids
+    private PvPZone loadZone(String key, ConfigurationSection zoneSection) {
+        PvPZone zone = loadShape(key, zoneSection);
+        List<String> schedule = zoneSection.getStringList("schedule");
+        if (zone == null || schedule == null || schedule.isEmpty()) return zone;
+        try {
+            return zone.withSchedule(ZoneSchedule.parse(schedule));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid schedule for zone ''{0}'' ({1}); the zone is always active.",
+                    new Object[]{key, e.getMessage()});
+            return zone;
+        }
+    }
+
+    private PvPZone loadShape(String key, ConfigurationSection zoneSection) {
+        String name = zoneSection.getString("name", key);
+        String world = zoneSection.getString("world", "world");
+        PvPZone.Corners corners = new PvPZone.Corners(
+                zoneSection.getInt("x1"), zoneSection.getInt("y1"), zoneSection.getInt("z1"),
+                zoneSection.getInt("x2"), zoneSection.getInt("y2"), zoneSection.getInt("z2"));
+        int minY = Math.min(corners.y1(), corners.y2());
+        int maxY = Math.max(corners.y1(), corners.y2());
+
+        String shapeName = zoneSection.getString("shape", "cuboid");
+        PvPZone.Shape shape;
+        try {
+            shape = PvPZone.Shape.valueOf(shapeName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid shape ''{0}'' for zone ''{1}''; loading it as a cuboid.",
+                    new Object[]{shapeName, key});
+            shape = PvPZone.Shape.CUBOID;
+        }
+
+        switch (shape) {
+            case CYLINDER -> {
+                return PvPZone.cylinder(name, world, zoneSection.getInt("center-x"), zoneSection.getInt("center-z"),
+                        Math.max(0, zoneSection.getInt("radius")), minY, maxY);
+            }
+            case POLYGON -> {
+                List<String> points = zoneSection.getStringList("points");
+                int[] xs = new int[points.size()];
+                int[] zs = new int[points.size()];
+                try {
+                    for (int i = 0; i < points.size(); i++) {
+                        String[] parts = points.get(i).split(",");
+                        xs[i] = Integer.parseInt(parts[0].trim());
+                        zs[i] = Integer.parseInt(parts[1].trim());
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid point list for zone ''{0}''; skipping it.", key);
+                    return null;
+                }
+                if (points.size() < 3) {
+                    plugin.getLogger().log(Level.WARNING, "[PvPToggle] Polygon zone ''{0}'' has fewer than 3 points; skipping it.", key);
+                    return null;
+                }
+                return PvPZone.polygon(name, world, xs, zs, minY, maxY);
+            }
+            default -> {
+                return new PvPZone(name, world, corners);
             }
-            loadedCount = zones.size();
-            clearZoneCache(); // Clear cache when zones are reloaded
         }
-        plugin.getLogger().log(Level.INFO, "Loaded {0} PvP zone(s).", loadedCount);
     }
 
-    public void saveZones() {
+    /**
+     * Write zones only if they changed since the last save. Every change already
+     * saves in the background, so on disable this usually just waits for that write.
+     */
+    public void flushZones() {
+        ZoneSnapshot current = snapshot;
+        synchronized (saveLock) {
+            if (current.getVersion() <= lastSavedVersion) return;
+        }
+        saveZonesSnapshot(current);
+    }
+    
+    /**
+     * Save zones asynchronously to prevent blocking the main thread.
+     * The snapshot is captured here, so mutations made while the write is in
+     * flight are picked up by the save they trigger themselves.
+     */
+    private void saveZonesAsync() {
+        final ZoneSnapshot toSave = snapshot;
+        plugin.getTaskScheduler().runAsync(() -> saveZonesSnapshot(toSave));
+    }
+    
+    /**
+     * Save a snapshot of zones to disk.
+     * 
+     * Snapshots are immutable, so no lock is needed to read them; saveLock only
+     * orders file writes. A snapshot older than the last one written is skipped
+     * so a slow async save can't overwrite a newer file.
+     */
+    private void saveZonesSnapshot(ZoneSnapshot toSave) {
         synchronized (saveLock) {
+            if (toSave.getVersion() < lastSavedVersion) return;
             YamlConfiguration config = new YamlConfiguration();
-            for (Map.Entry<String, PvPZone> entry : zones.entrySet()) {
+            for (Map.Entry<String, PvPZone> entry : toSave.getZones().entrySet()) {
                 PvPZone zone = entry.getValue();
                 String path = "zones." + entry.getKey();
                 config.set(path + ".name",  zone.getName());
@@ -204,52 +595,26 @@ public class ZoneManager {
                 config.set(path + ".x2", zone.getX2());
                 config.set(path + ".y2", zone.getY2());
                 config.set(path + ".z2", zone.getZ2());
+                if (zone.getSchedule() != null) config.set(path + ".schedule", zone.getSchedule().getSpecs());
+                if (zone.getShape() == PvPZone.Shape.CUBOID) continue;
+
+                // Other shapes keep their bounding box above, plus the exact outline
+                config.set(path + ".shape", zone.getShape().name().toLowerCase(Locale.ROOT));
+                if (zone.getShape() == PvPZone.Shape.CYLINDER) {
+                    config.set(path + ".center-x", zone.getCenterX());
+                    config.set(path + ".center-z", zone.getCenterZ());
+                    config.set(path + ".radius", zone.getRadius());
+                } else {
+                    int[] xs = zone.getPointsX();
+                    int[] zs = zone.getPointsZ();
+                    List<String> points = new ArrayList<>(xs.length);
+                    for (int i = 0; i < xs.length; i++) points.add(xs[i] + "," + zs[i]);
+                    config.set(path + ".points", points);
+                }
             }
             YamlUtil.saveConfig(config, plugin.getDataFolder(), "zones.yml",
                     plugin.getLogger(), "Failed to save zones");
+            lastSavedVersion = toSave.getVersion();
         }
     }
-    
-    /**
-     * Save zones asynchronously to prevent blocking the main thread.
-     * 
-     * This method uses a snapshot approach for eventual consistency:
-     * - A consistent snapshot is taken under lock to prevent ConcurrentModificationException
-     * - The snapshot is written to disk without holding the lock to avoid blocking mutations
-     * - Mutations that occur after snapshot but before write completes will be saved on next save
-     * - This trade-off is acceptable for zone data which changes infrequently
-     */
-    private void saveZonesAsync() {
-        // Snapshot zones under synchronization to prevent ConcurrentModificationException
-        final Map<String, PvPZone> zoneSnapshot;
-        synchronized (saveLock) {
-            zoneSnapshot = new LinkedHashMap<>(zones);
-        }
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveZonesSnapshot(zoneSnapshot));
-    }
-    
-    /**
-     * Save a snapshot of zones to disk.
-     * 
-     * Note: This operates on a point-in-time snapshot without holding locks during I/O.
-     * Any mutations that occur after the snapshot was taken will not be reflected in this write,
-     * but will be captured by the next save operation (eventual consistency).
-     */
-    private void saveZonesSnapshot(Map<String, PvPZone> zoneSnapshot) {
-        YamlConfiguration config = new YamlConfiguration();
-        for (Map.Entry<String, PvPZone> entry : zoneSnapshot.entrySet()) {
-            PvPZone zone = entry.getValue();
-            String path = "zones." + entry.getKey();
-            config.set(path + ".name", zone.getName());
-            config.set(path + ".world", zone.getWorldName());
-            config.set(path + ".x1", zone.getX1());
-            config.set(path + ".y1", zone.getY1());
-            config.set(path + ".z1", zone.getZ1());
-            config.set(path + ".x2", zone.getX2());
-            config.set(path + ".y2", zone.getY2());
-            config.set(path + ".z2", zone.getZ2());
-        }
-        YamlUtil.saveConfig(config, plugin.getDataFolder(), "zones.yml",
-                plugin.getLogger(), "Failed to save zones");
-    }
 }
@@ -0,0 +1,167 @@
+package com.pvptoggle.manager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allocation-free cache of "is this block in a forced PvP zone" results for one world.
+ *
+ * Block coordinates are packed into a single long together with the cached result,
+ * so every slot is read and written atomically and readers never lock. The table is
+ * set-associative: a key hashes to a set of {@link #WAYS} slots and, when the set is
+ * full, a CLOCK hand evicts the first entry that has not been read since its last pass.
+ *
+ * Entries are only valid for the index generation and activation epoch they were
+ * computed against. A lookup with a different stamp misses, and the next insert
+ * starts a fresh table, so a zone change or a scheduled zone switching on or off
+ * invalidates a world's cache without an explicit flush.
+ */
+public final class ZoneResultCache {
+
+    public static final int MISS = -1;
+
+    private static final int WAYS = 8;
+
+    // Slot layout: [63] occupied | [62] result | [61..36] x | [35..10] z | [9..0] y
+    private static final long OCCUPIED   = 1L << 63;
+    private static final long RESULT     = 1L << 62;
+    private static final long KEY_MASK   = RESULT - 1;
+    private static final int  XZ_BITS    = 26;
+    private static final int  Y_BITS     = 10;
+    private static final int  XZ_LIMIT   = 1 << (XZ_BITS - 1);
+    private static final int  Y_LIMIT    = 1 << (Y_BITS - 1);
+
+    private final int capacity;
+    private final int setShift;
+    private volatile Table table;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Table {
+        final long generation;
+        final long epoch;
+        final AtomicLongArray slots;
+        final byte[] referenced;   // CLOCK bits, racy writes are harmless
+        final byte[] hands;        // CLOCK hand per set
+
+        Table(long generation, long epoch, int capacity) {
+            this.generation = generation;
+            this.epoch = epoch;
+            slots = new AtomicLongArray(capacity);
+            referenced = new byte[capacity];
+            hands = new byte[capacity / WAYS];
+        }
+    }
+
+    /**
+     * @param maxEntries upper bound on cached blocks, rounded up to a power of two
+     */
+    public ZoneResultCache(int maxEntries) {
+        int sets = Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS - 1)) << 1;
+        this.capacity = sets * WAYS;
+        this.setShift = 64 - Integer.numberOfTrailingZeros(sets);
+        this.table = new Table(0, 0, capacity);
+    }
+
+    /**
+     * Pack block coordinates into a cache key.
+     * @return the key, or -1 if the coordinates fall outside the packable range
+     */
+    public static long key(int x, int y, int z) {
+        if (x < -XZ_LIMIT || x >= XZ_LIMIT || z < -XZ_LIMIT || z >= XZ_LIMIT
+                || y < -Y_LIMIT || y >= Y_LIMIT) {
+            return -1;
+        }
+        return ((long) (x & ((1 << XZ_BITS) - 1)) << (XZ_BITS + Y_BITS))
+                | ((long) (z & ((1 << XZ_BITS) - 1)) << Y_BITS)
+                | (y & ((1 << Y_BITS) - 1));
+    }
+
+    /**
+     * Look up a packed key without locking.
+     * @param generation generation of the index the caller would otherwise consult
+     * @param epoch activation epoch the caller is evaluating schedules for
+     * @return 1 if cached as inside a zone, 0 if cached as outside, {@link #MISS} otherwise
+     */
+    public int get(long key, long generation, long epoch) {
+        Table t = table;
+        if (t.generation != generation || t.epoch != epoch) {
+            misses.increment();
+            return MISS;
+        }
+        int base = setIndex(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            long slot = t.slots.get(i);
+            if ((slot & OCCUPIED) != 0 && (slot & KEY_MASK) == key) {
+                if (t.referenced[i] == 0) t.referenced[i] = 1;
+                hits.increment();
+                return (slot & RESULT) != 0 ? 1 : 0;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    public synchronized void put(long key, boolean inZone, long generation, long epoch) {
+        Table t = table;
+        if (t.generation != generation || t.epoch != epoch) {
+            // Result computed against an outdated index or activation state
+            if (t.generation > generation || (t.generation == generation && t.epoch > epoch)) return;
+            t = table = new Table(generation, epoch, capacity);
+        }
+        long entry = OCCUPIED | (inZone ? RESULT : 0) | key;
+        int set = setIndex(key);
+        int base = set * WAYS;
+
+        int free = -1;
+        for (int i = base; i < base + WAYS; i++) {
+            long slot = t.slots.get(i);
+            if ((slot & OCCUPIED) == 0) {
+                if (free < 0) free = i;
+            } else if ((slot & KEY_MASK) == key) {
+                t.slots.set(i, entry);
+                return;
+            }
+        }
+        if (free >= 0) {
+            t.referenced[free] = 0;
+            t.slots.set(free, entry);
+            return;
+        }
+
+        // Set is full: advance the CLOCK hand, clearing reference bits until a cold slot turns up
+        int hand = t.hands[set];
+        while (true) {
+            int i = base + hand;
+            hand = (hand + 1) & (WAYS - 1);
+            if (t.referenced[i] != 0) {
+                t.referenced[i] = 0;
+                continue;
+            }
+            t.slots.set(i, entry);
+            t.hands[set] = (byte) hand;
+            evictions.increment();
+            return;
+        }
+    }
+
+    public int getCapacity()    { return capacity; }
+    public long getHits()       { return hits.sum(); }
+    public long getMisses()     { return misses.sum(); }
+    public long getEvictions()  { return evictions.sum(); }
+
+    public int getSize() {
+        Table t = table;
+        int size = 0;
+        for (int i = 0; i < capacity; i++) {
+            if ((t.slots.get(i) & OCCUPIED) != 0) size++;
+        }
+        return size;
+    }
+
+    private int setIndex(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> setShift);
+    }
+}
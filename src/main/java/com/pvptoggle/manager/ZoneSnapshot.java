@@ -0,0 +1,100 @@
+package com.pvptoggle.manager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.pvptoggle.model.PvPZone;
+
+/**
+ * Immutable, versioned view of the zone registry.
+ *
+ * ZoneManager publishes a new snapshot through a volatile reference on every
+ * create/delete/load; readers and the zone file writer keep using whichever
+ * snapshot they grabbed and never wait on a writer. Per-world indexes are built
+ * lazily from the snapshot's own zones; a change updates the index of the world
+ * it touched incrementally and carries the others over so their caches stay warm.
+ */
+final class ZoneSnapshot {
+
+    private final long version;
+    private final Map<String, PvPZone> zones;                  // key = lowercase name
+    private final Map<String, ZoneIndex> indexes = new ConcurrentHashMap<>();
+    private final List<PvPZone> scheduled;                     // zones with a schedule, for the activation timer
+
+    private ZoneSnapshot(long version, LinkedHashMap<String, PvPZone> zones, Map<String, ZoneIndex> carriedIndexes) {
+        this.version = version;
+        this.zones = Collections.unmodifiableMap(zones);
+        this.indexes.putAll(carriedIndexes);
+        this.scheduled = zones.values().stream().filter(zone -> zone.getSchedule() != null).toList();
+    }
+
+    static ZoneSnapshot empty() {
+        return new ZoneSnapshot(0, new LinkedHashMap<>(), Collections.emptyMap());
+    }
+
+    /**
+     * Build the next snapshot with {@code zone} stored under {@code key}, replacing
+     * any zone already there. Built indexes of the affected worlds are updated
+     * incrementally; all other worlds keep theirs.
+     */
+    ZoneSnapshot withZone(String key, PvPZone zone) {
+        LinkedHashMap<String, PvPZone> newZones = new LinkedHashMap<>(zones);
+        PvPZone previous = newZones.put(key, zone);
+        Map<String, ZoneIndex> newIndexes = new HashMap<>(indexes);
+        if (previous != null) newIndexes.computeIfPresent(previous.getWorldName(), (w, index) -> index.withoutZone(previous));
+        newIndexes.computeIfPresent(zone.getWorldName(), (w, index) -> index.withZone(zone));
+        return new ZoneSnapshot(version + 1, newZones, newIndexes);
+    }
+
+    /**
+     * Build the next snapshot without the zone stored under {@code key}.
+     * @return the next snapshot, or this one if there is no such zone
+     */
+    ZoneSnapshot withoutZone(String key) {
+        PvPZone removed = zones.get(key);
+        if (removed == null) return this;
+        LinkedHashMap<String, PvPZone> newZones = new LinkedHashMap<>(zones);
+        newZones.remove(key);
+        Map<String, ZoneIndex> newIndexes = new HashMap<>(indexes);
+        newIndexes.computeIfPresent(removed.getWorldName(), (w, index) -> index.withoutZone(removed));
+        return new ZoneSnapshot(version + 1, newZones, newIndexes);
+    }
+
+    /**
+     * Build the next snapshot with an entirely new zone set (used by reload).
+     * Indexes are rebuilt lazily.
+     */
+    ZoneSnapshot replacing(LinkedHashMap<String, PvPZone> newZones) {
+        return new ZoneSnapshot(version + 1, newZones, Collections.emptyMap());
+    }
+
+    /**
+     * Get the spatial index for a world, building it on first use.
+     * Concurrent first lookups may both build one; only the first is kept.
+     */
+    ZoneIndex index(String worldName) {
+        ZoneIndex index = indexes.get(worldName);
+        if (index != null) return index;
+        ZoneIndex built = ZoneIndex.build(worldName, zones.values());
+        ZoneIndex raced = indexes.putIfAbsent(worldName, built);
+        return raced != null ? raced : built;
+    }
+
+    /**
+     * Free the index of an unloaded world. This only drops derived data, so the
+     * snapshot's zone set and version stay the same.
+     */
+    void dropIndex(String worldName) {
+        indexes.remove(worldName);
+    }
+
+    long getVersion()                { return version; }
+    Map<String, PvPZone> getZones()  { return zones; }
+    Collection<PvPZone> getValues()  { return zones.values(); }
+    List<PvPZone> getScheduled()     { return scheduled; }
+}
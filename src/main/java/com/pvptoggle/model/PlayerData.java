@@ -1,11 +1,38 @@
 package com.pvptoggle.model;
 
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Persistent state for a player. Written by the player's own thread, admin
+ * commands and the playtime tick, and read by async saves, so single fields are
+ * volatile and updates spanning two fields are synchronized.
+ *
+ * Every change to a saved field bumps a version; a save records the version it
+ * wrote, so only records changed since then are written again. Once tracked,
+ * a change also puts the player in the owner's set of changed players, so
+ * saves visit only those instead of every player ever seen.
+ */
 public class PlayerData {
 
-    private boolean pvpEnabled;
-    private long totalPlaytimeSeconds;
-    private int processedCycles;   // how many cycles converted to debt
-    private long pvpDebtSeconds;
+    private volatile boolean pvpEnabled;
+    private volatile long totalPlaytimeSeconds;   // accrued up to sessionStartMillis
+    private volatile int processedCycles;   // how many cycles converted to debt
+    private volatile long pvpDebtSeconds;
+
+    // When the current online session started accruing playtime, 0 while offline; never saved
+    private volatile long sessionStartMillis;
+
+    // TOGGLE and DEBT bits of the PvP policy input mask; never saved
+    private volatile int policyInputs;
+
+    // Change counter for saved fields and the value last written to disk
+    private volatile long version = 1;   // new records start unsaved
+    private volatile long savedVersion;
+
+    // Where changes are reported, see trackChanges; never saved
+    private volatile UUID playerId;
+    private volatile Set<UUID> changedPlayers;
 
     public PlayerData() {
         this.pvpEnabled = false;
@@ -18,31 +45,132 @@ public class PlayerData {
         return pvpEnabled;
     }
 
-    public void setPvpEnabled(boolean pvpEnabled) {
+    public synchronized void setPvpEnabled(boolean pvpEnabled) {
         this.pvpEnabled = pvpEnabled;
+        changed();
+        policyInputs = pvpEnabled ? policyInputs | PolicyInput.TOGGLE : policyInputs & ~PolicyInput.TOGGLE;
     }
 
+    /**
+     * Playtime is not counted up every second; it is the accrued total plus
+     * the time since the session started, worked out when somebody asks.
+     */
     public long getTotalPlaytimeSeconds() {
-        return totalPlaytimeSeconds;
+        return getTotalPlaytimeSeconds(System.currentTimeMillis());
+    }
+
+    public synchronized long getTotalPlaytimeSeconds(long nowMillis) {
+        if (sessionStartMillis == 0) return totalPlaytimeSeconds;
+        return totalPlaytimeSeconds + Math.max(0, nowMillis - sessionStartMillis) / 1000;
     }
 
-    public void setTotalPlaytimeSeconds(long totalPlaytimeSeconds) {
+    public synchronized void setTotalPlaytimeSeconds(long totalPlaytimeSeconds) {
         this.totalPlaytimeSeconds = totalPlaytimeSeconds;
+        changed();
+        if (sessionStartMillis != 0) sessionStartMillis = System.currentTimeMillis();
+    }
+
+    public boolean isAccruing() {
+        return sessionStartMillis != 0;
+    }
+
+    // player came online
+    public synchronized void startSession(long nowMillis) {
+        if (sessionStartMillis == 0) sessionStartMillis = nowMillis;
+    }
+
+    // player went offline; folds the session into the accrued total
+    public synchronized void stopSession(long nowMillis) {
+        if (sessionStartMillis == 0) return;
+        long elapsed = Math.max(0, nowMillis - sessionStartMillis);
+        totalPlaytimeSeconds += elapsed / 1000;
+        sessionStartMillis = 0;
+        changed();
+    }
+
+    /**
+     * Fold the whole seconds of a running session into the accrued total, as a
+     * change, so they are saved without waiting for the player to leave
+     */
+    public synchronized void checkpointSession(long nowMillis) {
+        if (sessionStartMillis == 0) return;
+        long seconds = Math.max(0, nowMillis - sessionStartMillis) / 1000;
+        if (seconds == 0) return;
+        totalPlaytimeSeconds += seconds;
+        sessionStartMillis += seconds * 1000;
+        changed();
     }
 
     public int getProcessedCycles() {
         return processedCycles;
     }
 
-    public void setProcessedCycles(int processedCycles) {
+    public synchronized void setProcessedCycles(int processedCycles) {
         this.processedCycles = processedCycles;
+        changed();
     }
 
     public long getPvpDebtSeconds() {
         return pvpDebtSeconds;
     }
 
-    public void setPvpDebtSeconds(long pvpDebtSeconds) {
-        this.pvpDebtSeconds = Math.max(0, pvpDebtSeconds);
+    public synchronized void setPvpDebtSeconds(long pvpDebtSeconds) {
+        long clamped = Math.max(0, pvpDebtSeconds);
+        this.pvpDebtSeconds = clamped;
+        changed();
+        // Only having debt or not matters to the policy, not the countdown
+        policyInputs = clamped > 0 ? policyInputs | PolicyInput.DEBT : policyInputs & ~PolicyInput.DEBT;
+    }
+
+    /**
+     * @return this player's bits of the policy input mask, see {@link PolicyInput}
+     */
+    public int getPolicyInputs() {
+        return policyInputs;
+    }
+
+    /**
+     * @return the change counter; read it before the fields to be saved and pass it to {@link #markSaved}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if a saved field changed since the record was last saved. Playtime
+     *         still accruing doesn't count: it is written with the record whenever the
+     *         record is, by full rewrites, and when the session stops on quit or shutdown
+     */
+    public boolean isDirty() {
+        return version != savedVersion;
+    }
+
+    /**
+     * Record that the given version is on disk and, once tracked, drop the player
+     * from the changed set unless they changed again in the meantime
+     */
+    public void markSaved(long version) {
+        this.savedVersion = version;
+        Set<UUID> changed = changedPlayers;
+        if (changed == null) return;
+        changed.remove(playerId);
+        // A change racing the removal either adds itself back or bumped the version first
+        if (isDirty()) changed.add(playerId);
+    }
+
+    /**
+     * Report changes of this record, owned by the given player, to a concurrent set
+     */
+    public synchronized void trackChanges(UUID playerId, Set<UUID> changedPlayers) {
+        this.playerId = playerId;
+        this.changedPlayers = changedPlayers;
+        if (isDirty()) changedPlayers.add(playerId);
+    }
+
+    // Caller holds the monitor
+    private void changed() {
+        version++;
+        Set<UUID> changed = changedPlayers;
+        if (changed != null) changed.add(playerId);
     }
 }
@@ -0,0 +1,174 @@
+package com.pvptoggle.model;
+
+/**
+ * Transient state for an online player. Never persisted; created on first use
+ * and dropped when the player quits.
+ *
+ * Zone membership and feedback timestamps are only touched on the player's own
+ * thread. Fields other threads read (the policy inputs an attacker looks up, the
+ * permissions a reload refreshes) are volatile, and the input mask is updated
+ * atomically since several of its bits have different writers.
+ */
+public class PlayerSession {
+
+    private static final PvPZone[] NO_ZONES = new PvPZone[0];
+    private static final int FEEDBACK_REASONS = 4;
+
+    // Zone membership, re-evaluated only on block crossings, teleports and world changes
+    private PvPZone currentZone;
+    private String worldName;
+    private int blockX;
+    private int blockY;
+    private int blockZ;
+    private long zoneVersion = -1;  // ZoneManager snapshot version the membership was computed against
+    private long zoneEpoch = -1;    // and schedule activation epoch
+
+    // BYPASS, FORCED_ZONE, COMBAT_TAG and world bits of the PvP policy input mask,
+    // kept in step with the fields they mirror
+    private volatile int policyInputs;
+
+    // Cached permission checks, refreshed by PvPManager on join, world change,
+    // a timer and /pvpadmin refreshperms
+    private volatile boolean permissionsLoaded;
+    private volatile boolean bypass;
+    private volatile boolean admin;
+    private volatile boolean worldRulesLoaded;
+
+    // Set while a combat tag is running; PvP stays forced on
+    private volatile boolean combatTagged;
+
+    // Client locale in catalog form (e.g. en_us), null until first needed
+    private volatile String locale;
+
+    // When blocked-hit feedback was last sent, per reason (millis)
+    private final long[] feedbackSentAt = new long[FEEDBACK_REASONS];
+
+    // Zones reaching the chunk the list was built around or its 8 neighbours
+    private PvPZone[] nearbyZones = NO_ZONES;
+    private String nearbyWorld;
+    private int nearbyChunkX;
+    private int nearbyChunkZ;
+    private long nearbyVersion = -1;
+
+    public PvPZone getCurrentZone() {
+        return currentZone;
+    }
+
+    public boolean isInZone() {
+        return currentZone != null;
+    }
+
+    public long getZoneVersion() {
+        return zoneVersion;
+    }
+
+    public long getZoneEpoch() {
+        return zoneEpoch;
+    }
+
+    /**
+     * @return true if the player still stands in the block the membership was computed for
+     */
+    public boolean isAtBlock(String worldName, int x, int y, int z) {
+        return blockX == x && blockY == y && blockZ == z && worldName.equals(this.worldName);
+    }
+
+    /**
+     * @return candidate zones for a block in the given chunk, or null if the
+     *         chunk is outside the stored neighbourhood or zones have changed since
+     */
+    public PvPZone[] getNearbyZones(String worldName, int chunkX, int chunkZ, long zoneVersion) {
+        if (nearbyVersion != zoneVersion || !worldName.equals(nearbyWorld)) return null;
+        if (Math.abs(chunkX - nearbyChunkX) > 1 || Math.abs(chunkZ - nearbyChunkZ) > 1) return null;
+        return nearbyZones;
+    }
+
+    public void setNearbyZones(PvPZone[] zones, String worldName, int chunkX, int chunkZ, long zoneVersion) {
+        this.nearbyZones = zones;
+        this.nearbyWorld = worldName;
+        this.nearbyChunkX = chunkX;
+        this.nearbyChunkZ = chunkZ;
+        this.nearbyVersion = zoneVersion;
+    }
+
+    public boolean isPermissionsLoaded() {
+        return permissionsLoaded;
+    }
+
+    public boolean hasBypass() {
+        return bypass;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public void setPermissions(boolean bypass, boolean admin) {
+        this.bypass = bypass;
+        this.admin = admin;
+        setInput(PolicyInput.BYPASS, bypass);
+        this.permissionsLoaded = true;
+    }
+
+    public boolean isWorldRulesLoaded() {
+        return worldRulesLoaded;
+    }
+
+    /**
+     * @param worldInputs the WORLD_* bits for the world the player is in
+     */
+    public synchronized void setWorldRules(int worldInputs) {
+        policyInputs = (policyInputs & ~PolicyInput.WORLD_MASK) | (worldInputs & PolicyInput.WORLD_MASK);
+        this.worldRulesLoaded = true;
+    }
+
+    /**
+     * @return this session's bits of the policy input mask, see {@link PolicyInput}
+     */
+    public int getPolicyInputs() {
+        return policyInputs;
+    }
+
+    private synchronized void setInput(int bit, boolean on) {
+        policyInputs = on ? policyInputs | bit : policyInputs & ~bit;
+    }
+
+    public boolean isCombatTagged() {
+        return combatTagged;
+    }
+
+    public void setCombatTagged(boolean combatTagged) {
+        this.combatTagged = combatTagged;
+        setInput(PolicyInput.COMBAT_TAG, combatTagged);
+    }
+
+    /**
+     * Claim the right to send feedback for a reason, at most once per cooldown.
+     * @param reason small reason index, below 4
+     * @return true if the caller should send the message now
+     */
+    public boolean tryFeedback(int reason, long now, long cooldownMillis) {
+        if (cooldownMillis > 0 && now - feedbackSentAt[reason] < cooldownMillis) return false;
+        feedbackSentAt[reason] = now;
+        return true;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+
+    public void setZone(PvPZone zone, String worldName, int x, int y, int z, long zoneVersion, long zoneEpoch) {
+        this.currentZone = zone;
+        setInput(PolicyInput.FORCED_ZONE, zone != null);
+        this.worldName = worldName;
+        this.blockX = x;
+        this.blockY = y;
+        this.blockZ = z;
+        this.zoneVersion = zoneVersion;
+        this.zoneEpoch = zoneEpoch;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pvptoggle.model;
+
+/**
+ * Bits of a player's PvP policy input mask. PlayerData and PlayerSession keep
+ * their bits up to date in their setters, so building the mask for a decision is
+ * two field reads and an or; the global window bit is added by PvPManager.
+ */
+public final class PolicyInput {
+
+    public static final int TOGGLE         = 1;       // manual toggle is on        (PlayerData)
+    public static final int DEBT           = 1 << 1;  // playtime debt remaining    (PlayerData)
+    public static final int BYPASS         = 1 << 2;  // has pvptoggle.bypass       (PlayerSession)
+    public static final int FORCED_ZONE    = 1 << 3;  // inside an active zone      (PlayerSession)
+    public static final int GLOBAL_WINDOW  = 1 << 4;  // server-wide window open    (ZoneManager)
+    public static final int COMBAT_TAG     = 1 << 5;  // combat tag running         (PlayerSession)
+    public static final int WORLD_FORCED   = 1 << 6;  // world rule "forced"        (PlayerSession)
+    public static final int WORLD_DISABLED = 1 << 7;  // world rule "disabled"      (PlayerSession)
+
+    public static final int COUNT = 8;
+    public static final int WORLD_MASK = WORLD_FORCED | WORLD_DISABLED;
+
+    private PolicyInput() {}
+}
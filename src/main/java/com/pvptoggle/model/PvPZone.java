@@ -1,12 +1,19 @@
 package com.pvptoggle.model;
 
+import java.util.Arrays;
+
 import org.bukkit.Location;
 import org.bukkit.World;
 
 public class PvPZone {
 
+    public enum Shape { CUBOID, CYLINDER, POLYGON }
+
     private final String name;
     private final String worldName;
+    private final Shape shape;
+
+    // Axis-aligned bounds; the whole zone for cuboids, a prefilter for other shapes
     private final int x1;
     private final int y1;
     private final int z1;
@@ -14,17 +21,97 @@ public class PvPZone {
     private final int y2;
     private final int z2;
 
+    // cylinder
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+
+    // polygon, extruded from y1 to y2
+    private final int[] pointsX;
+    private final int[] pointsZ;
+
+    // null = always active
+    private final ZoneSchedule schedule;
+
     public record Corners(int x1, int y1, int z1, int x2, int y2, int z2) {}
 
     public PvPZone(String name, String worldName, Corners corners) {
         this.name = name;
         this.worldName = worldName;
+        this.shape = Shape.CUBOID;
         this.x1 = Math.min(corners.x1(), corners.x2());
         this.y1 = Math.min(corners.y1(), corners.y2());
         this.z1 = Math.min(corners.z1(), corners.z2());
         this.x2 = Math.max(corners.x1(), corners.x2());
         this.y2 = Math.max(corners.y1(), corners.y2());
         this.z2 = Math.max(corners.z1(), corners.z2());
+        this.centerX = 0;
+        this.centerZ = 0;
+        this.radius = 0;
+        this.pointsX = null;
+        this.pointsZ = null;
+        this.schedule = null;
+    }
+
+    private PvPZone(String name, String worldName, Shape shape, Corners bounds,
+                    int centerX, int centerZ, int radius, int[] pointsX, int[] pointsZ, ZoneSchedule schedule) {
+        this.name = name;
+        this.worldName = worldName;
+        this.shape = shape;
+        this.x1 = bounds.x1();
+        this.y1 = bounds.y1();
+        this.z1 = bounds.z1();
+        this.x2 = bounds.x2();
+        this.y2 = bounds.y2();
+        this.z2 = bounds.z2();
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.pointsX = pointsX;
+        this.pointsZ = pointsZ;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Vertical cylinder: every block whose column lies within {@code radius} of the center.
+     */
+    public static PvPZone cylinder(String name, String worldName, int centerX, int centerZ,
+                                   int radius, int minY, int maxY) {
+        if (radius < 0) throw new IllegalArgumentException("Cylinder radius must not be negative");
+        Corners bounds = new Corners(centerX - radius, Math.min(minY, maxY), centerZ - radius,
+                centerX + radius, Math.max(minY, maxY), centerZ + radius);
+        return new PvPZone(name, worldName, Shape.CYLINDER, bounds, centerX, centerZ, radius, null, null, null);
+    }
+
+    /**
+     * Polygon in the x/z plane extruded between two heights. Blocks on an edge count as inside.
+     */
+    public static PvPZone polygon(String name, String worldName, int[] pointsX, int[] pointsZ,
+                                  int minY, int maxY) {
+        if (pointsX.length != pointsZ.length || pointsX.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 points");
+        }
+        Corners bounds = new Corners(
+                Arrays.stream(pointsX).min().getAsInt(), Math.min(minY, maxY), Arrays.stream(pointsZ).min().getAsInt(),
+                Arrays.stream(pointsX).max().getAsInt(), Math.max(minY, maxY), Arrays.stream(pointsZ).max().getAsInt());
+        return new PvPZone(name, worldName, Shape.POLYGON, bounds, 0, 0, 0,
+                pointsX.clone(), pointsZ.clone(), null);
+    }
+
+    /**
+     * @param schedule when the zone forces PvP, or null for always
+     * @return a copy of this zone with the given schedule
+     */
+    public PvPZone withSchedule(ZoneSchedule schedule) {
+        return new PvPZone(name, worldName, shape, new Corners(x1, y1, z1, x2, y2, z2),
+                centerX, centerZ, radius, pointsX, pointsZ, schedule);
+    }
+
+    /**
+     * @param minuteOfWeek see {@link ZoneSchedule#minuteOfWeek}
+     */
+    public boolean isActiveAt(int minuteOfWeek) {
+        return schedule == null || schedule.isActive(minuteOfWeek);
     }
 
     public boolean contains(Location location) {
@@ -32,20 +119,125 @@ public class PvPZone {
         World world = location.getWorld();
         if (world == null) return false;
         if (!world.getName().equals(worldName)) return false;
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
-        return x >= x1 && x <= x2
-            && y >= y1 && y <= y2
-            && z >= z1 && z <= z2;
+        return contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    // block coords only, caller is responsible for matching the world
+    public boolean contains(int x, int y, int z) {
+        // Bounding box first; the exact test only runs for points inside it
+        if (x < x1 || x > x2 || y < y1 || y > y2 || z < z1 || z > z2) return false;
+        return switch (shape) {
+            case CUBOID   -> true;
+            case CYLINDER -> insideCircle(x, z);
+            case POLYGON  -> insidePolygon(x, z);
+        };
+    }
+
+    /**
+     * @return true if every block column in the x/z rectangle is inside the zone's footprint.
+     *         May return false for polygons that only touch the rectangle's edge.
+     */
+    public boolean coversArea(int minX, int minZ, int maxX, int maxZ) {
+        if (minX < x1 || maxX > x2 || minZ < z1 || maxZ > z2) return false;
+        return switch (shape) {
+            case CUBOID   -> true;
+            // The circle is convex, so the corners are the farthest columns from the center
+            case CYLINDER -> insideCircle(minX, minZ) && insideCircle(minX, maxZ)
+                          && insideCircle(maxX, minZ) && insideCircle(maxX, maxZ);
+            case POLYGON  -> insidePolygon(minX, minZ) && insidePolygon(minX, maxZ)
+                          && insidePolygon(maxX, minZ) && insidePolygon(maxX, maxZ)
+                          && !anyEdgeIntersects(minX, minZ, maxX, maxZ);
+        };
+    }
+
+    /**
+     * @return false only if no block column in the x/z rectangle can be inside the zone's footprint
+     */
+    public boolean intersectsArea(int minX, int minZ, int maxX, int maxZ) {
+        if (maxX < x1 || minX > x2 || maxZ < z1 || minZ > z2) return false;
+        return switch (shape) {
+            case CUBOID   -> true;
+            // Nearest column of the rectangle to the center decides it
+            case CYLINDER -> insideCircle(Math.max(minX, Math.min(centerX, maxX)),
+                                          Math.max(minZ, Math.min(centerZ, maxZ)));
+            case POLYGON  -> insidePolygon(minX, minZ)
+                          || pointsX[0] >= minX && pointsX[0] <= maxX && pointsZ[0] >= minZ && pointsZ[0] <= maxZ
+                          || anyEdgeIntersects(minX, minZ, maxX, maxZ);
+        };
+    }
+
+    private boolean insideCircle(int x, int z) {
+        long dx = (long) x - centerX;
+        long dz = (long) z - centerZ;
+        return dx * dx + dz * dz <= (long) radius * radius;
+    }
+
+    // Even-odd rule on block coordinates; points on an edge count as inside
+    private boolean insidePolygon(int x, int z) {
+        boolean inside = false;
+        for (int i = 0, j = pointsX.length - 1; i < pointsX.length; j = i++) {
+            long xi = pointsX[i];
+            long zi = pointsZ[i];
+            long xj = pointsX[j];
+            long zj = pointsZ[j];
+            long cross = (xj - xi) * (z - zi) - (zj - zi) * (x - xi);
+            if (cross == 0 && x >= Math.min(xi, xj) && x <= Math.max(xi, xj)
+                    && z >= Math.min(zi, zj) && z <= Math.max(zi, zj)) {
+                return true;
+            }
+            if ((zi > z) != (zj > z)) {
+                long lhs = (x - xi) * (zj - zi);
+                long rhs = (xj - xi) * (z - zi);
+                if (zj > zi ? lhs < rhs : lhs > rhs) inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private boolean anyEdgeIntersects(int minX, int minZ, int maxX, int maxZ) {
+        for (int i = 0, j = pointsX.length - 1; i < pointsX.length; j = i++) {
+            if (segmentIntersectsRect(pointsX[j], pointsZ[j], pointsX[i], pointsZ[i], minX, minZ, maxX, maxZ)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Liang-Barsky clip of the segment against the closed rectangle
+    private static boolean segmentIntersectsRect(double ax, double az, double bx, double bz,
+                                                 double minX, double minZ, double maxX, double maxZ) {
+        double dx = bx - ax;
+        double dz = bz - az;
+        double[] p = {-dx, dx, -dz, dz};
+        double[] q = {ax - minX, maxX - ax, az - minZ, maxZ - az};
+        double t0 = 0;
+        double t1 = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) return false;
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) t0 = Math.max(t0, t);
+                else          t1 = Math.min(t1, t);
+                if (t0 > t1) return false;
+            }
+        }
+        return true;
     }
 
     public String getName()      { return name; }
     public String getWorldName() { return worldName; }
+    public Shape getShape()      { return shape; }
     public int getX1() { return x1; }
     public int getY1() { return y1; }
     public int getZ1() { return z1; }
     public int getX2() { return x2; }
     public int getY2() { return y2; }
     public int getZ2() { return z2; }
+    public ZoneSchedule getSchedule() { return schedule; }
+    public int getCenterX() { return centerX; }
+    public int getCenterZ() { return centerZ; }
+    public int getRadius()  { return radius; }
+    public int[] getPointsX() { return pointsX == null ? null : pointsX.clone(); }
+    public int[] getPointsZ() { return pointsZ == null ? null : pointsZ.clone(); }
 }
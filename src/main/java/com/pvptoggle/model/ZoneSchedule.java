@@ -0,0 +1,127 @@
+package com.pvptoggle.model;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Weekly time windows, e.g. {@code "MON-FRI 18:00-20:00"}, {@code "SAT,SUN 12:00-02:00"}
+ * or {@code "* 21:00-22:00"}. A window whose end is before its start runs past
+ * midnight into the next day. Times are in the server's time zone.
+ *
+ * Windows are compiled to minute-of-week ranges so checking one is a few int compares.
+ */
+public final class ZoneSchedule {
+
+    public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final List<String> specs;
+    private final int[] ranges;     // [start, end) pairs in minutes since Monday 00:00
+
+    private ZoneSchedule(List<String> specs, int[] ranges) {
+        this.specs = specs;
+        this.ranges = ranges;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a window is malformed or the list is empty
+     */
+    public static ZoneSchedule parse(List<String> specs) {
+        if (specs.isEmpty()) throw new IllegalArgumentException("No time windows given");
+        List<Integer> bounds = new ArrayList<>();
+        for (String spec : specs) {
+            String[] parts = spec.trim().split("\\s+");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected '<days> <HH:mm>-<HH:mm>': " + spec);
+            boolean[] days = parseDays(parts[0]);
+            String[] times = parts[1].split("-");
+            if (times.length != 2) throw new IllegalArgumentException("Expected '<HH:mm>-<HH:mm>': " + parts[1]);
+            int start = parseTime(times[0]);
+            int end = parseTime(times[1]);
+            int length = end > start ? end - start : end + MINUTES_PER_DAY - start;
+            for (int day = 0; day < 7; day++) {
+                if (!days[day]) continue;
+                int from = day * MINUTES_PER_DAY + start;
+                int to = from + length;
+                if (to <= MINUTES_PER_WEEK) {
+                    bounds.add(from);
+                    bounds.add(to);
+                } else {
+                    // Sunday night into Monday morning wraps around the week
+                    bounds.add(from);
+                    bounds.add(MINUTES_PER_WEEK);
+                    bounds.add(0);
+                    bounds.add(to - MINUTES_PER_WEEK);
+                }
+            }
+        }
+        return new ZoneSchedule(Collections.unmodifiableList(new ArrayList<>(specs)),
+                bounds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @param minuteOfWeek minutes since Monday 00:00, see {@link #minuteOfWeek}
+     */
+    public boolean isActive(int minuteOfWeek) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (minuteOfWeek >= ranges[i] && minuteOfWeek < ranges[i + 1]) return true;
+        }
+        return false;
+    }
+
+    public static int minuteOfWeek(ZonedDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * @return the windows as written, for saving and display
+     */
+    public List<String> getSpecs() {
+        return specs;
+    }
+
+    private static boolean[] parseDays(String text) {
+        boolean[] days = new boolean[7];
+        if (text.equals("*")) {
+            Arrays.fill(days, true);
+            return days;
+        }
+        for (String part : text.split(",")) {
+            String[] range = part.split("-");
+            int from = parseDay(range[0]);
+            int to = range.length > 1 ? parseDay(range[1]) : from;
+            for (int day = from; ; day = (day + 1) % 7) {
+                days[day] = true;
+                if (day == to) break;
+            }
+        }
+        return days;
+    }
+
+    private static int parseDay(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (upper.length() >= 3 && day.name().startsWith(upper)) return day.getValue() - 1;
+        }
+        throw new IllegalArgumentException("Unknown day: " + text);
+    }
+
+    private static int parseTime(String text) {
+        String[] hm = text.split(":");
+        try {
+            int hours = Integer.parseInt(hm[0]);
+            int minutes = hm.length > 1 ? Integer.parseInt(hm[1]) : 0;
+            if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59 || (hours == 24 && minutes != 0)) {
+                throw new IllegalArgumentException("Invalid time: " + text);
+            }
+            return hours * 60 + minutes;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time: " + text, e);
+        }
+    }
+}
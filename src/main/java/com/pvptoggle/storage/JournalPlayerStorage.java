@@ -0,0 +1,347 @@
+package com.pvptoggle.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.model.PlayerData;
+
+/**
+ * Binary checkpoint plus an append-only journal.
+ *
+ * playerdata.dat is every player as of the last compaction. Each save appends
+ * the changed records to playerdata.journal and forces it to disk, so a save
+ * costs the active players and a crash loses at most one flush interval. Each
+ * flush folds online players' running playtime into their records first, so
+ * that holds for playtime too.
+ * Loading replays the journal over the checkpoint, the last record of a player
+ * winning. Once the journal outgrows {@code storage.journal.compact-size}, the
+ * save that noticed folds everything into a new checkpoint and starts an empty
+ * journal; saves run off the main thread, so compaction does too.
+ *
+ * Both files name a generation. A compaction writes the new checkpoint before
+ * the new journal, each to a temporary file moved into place, so a journal
+ * whose generation doesn't match the checkpoint predates it and is skipped.
+ * Journal entries carry a CRC32; replay stops at the first torn entry. A
+ * checkpoint that can't be read or fails its CRC is moved aside with the
+ * journal, never loaded. Whenever the journal can't be opened, the next save
+ * compacts instead of appending, so the engine never stops persisting.
+ */
+public class JournalPlayerStorage implements PlayerStorage {
+
+    private static final String CHECKPOINT_FILE = "playerdata.dat";
+    private static final String JOURNAL_FILE = "playerdata.journal";
+
+    private static final int CHECKPOINT_MAGIC = 0x50565043;    // "PVPC"
+    private static final int JOURNAL_MAGIC = 0x5056504A;       // "PVPJ"
+    private static final int FORMAT = 1;
+
+    // magic, format, generation; the checkpoint adds a record count and ends with a CRC32
+    private static final int JOURNAL_HEADER_BYTES = 4 + 4 + 8;
+    private static final int CHECKPOINT_HEADER_BYTES = JOURNAL_HEADER_BYTES + 4;
+    private static final int ENTRY_BYTES = PlayerRecords.BYTES + 4;
+
+    private final PvPTogglePlugin plugin;
+    private final Path checkpointPath;
+    private final Path journalPath;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final ByteBuffer buffer = ByteBuffer.allocate(256 * ENTRY_BYTES);
+    private final CRC32 crc = new CRC32();
+    private FileChannel journal;        // null until opened, or after a failed compaction
+    private long generation;
+    private boolean closed;
+
+    private volatile long flushIntervalTicks;
+    private volatile long compactBytes;
+
+    public JournalPlayerStorage(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+        this.checkpointPath = new File(plugin.getDataFolder(), CHECKPOINT_FILE).toPath();
+        this.journalPath = new File(plugin.getDataFolder(), JOURNAL_FILE).toPath();
+    }
+
+    @Override
+    public void loadConfigValues() {
+        int flushSeconds = plugin.getConfig().getInt("storage.journal.flush-interval", 5);
+        if (flushSeconds < 1) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''storage.journal.flush-interval'' ({0}); using 1 instead.", flushSeconds);
+            flushSeconds = 1;
+        }
+        int compactMegabytes = plugin.getConfig().getInt("storage.journal.compact-size", 16);
+        if (compactMegabytes < 1) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''storage.journal.compact-size'' ({0}); using 1 instead.", compactMegabytes);
+            compactMegabytes = 1;
+        }
+        this.flushIntervalTicks = flushSeconds * 20L;
+        this.compactBytes = compactMegabytes * 1024L * 1024L;
+    }
+
+    @Override
+    public long getFlushIntervalTicks() {
+        return flushIntervalTicks;
+    }
+
+    @Override
+    public void load(Map<UUID, PlayerData> players) {
+        synchronized (lock) {
+            boolean fresh = !Files.exists(checkpointPath) && !Files.exists(journalPath);
+            if (Files.exists(checkpointPath)) {
+                try {
+                    readCheckpoint(players);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.SEVERE, "Could not load " + CHECKPOINT_FILE
+                            + "; moving it and " + JOURNAL_FILE + " aside and starting over", e);
+                    players.clear();
+                    generation = 0;
+                    moveAside(checkpointPath);
+                    moveAside(journalPath);
+                }
+            }
+            long validEnd = -1;
+            if (Files.exists(journalPath)) {
+                try {
+                    validEnd = replayJournal(players);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.SEVERE, "Could not read " + JOURNAL_FILE + "; moving it aside", e);
+                    moveAside(journalPath);
+                }
+            }
+
+            try {
+                Files.createDirectories(checkpointPath.getParent());
+                if (fresh && new File(plugin.getDataFolder(), YamlPlayerStorage.DATA_FILE).exists()) {
+                    // Switching from the YAML engine: take its data over once
+                    new YamlPlayerStorage(plugin).load(players);
+                    plugin.getLogger().log(Level.INFO, "Imported {0} players from {1}.",
+                            new Object[]{players.size(), YamlPlayerStorage.DATA_FILE});
+                    compact(players);
+                } else if (validEnd < 0) {
+                    startJournal(generation);
+                } else {
+                    journal = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+                    journal.truncate(validEnd);
+                    journal.position(validEnd);
+                }
+            } catch (IOException e) {
+                // Everything loaded stays in memory; the next save writes it to a new generation
+                plugin.getLogger().log(Level.SEVERE, "Failed to open player data journal; compacting on the next save", e);
+                closeJournal();
+            }
+        }
+    }
+
+    private void readCheckpoint(Map<UUID, PlayerData> players) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(checkpointPath));
+        if (buf.remaining() < CHECKPOINT_HEADER_BYTES + 4
+                || buf.getInt() != CHECKPOINT_MAGIC || buf.getInt() != FORMAT) {
+            throw new IOException(CHECKPOINT_FILE + " is not a player data checkpoint");
+        }
+        generation = buf.getLong();
+        int count = buf.getInt();
+        if (buf.remaining() != (long) count * PlayerRecords.BYTES + 4) {
+            throw new IOException(CHECKPOINT_FILE + " is truncated");
+        }
+        crc.reset();
+        crc.update(buf.array(), CHECKPOINT_HEADER_BYTES, count * PlayerRecords.BYTES);
+        if ((int) crc.getValue() != buf.getInt(buf.limit() - 4)) {
+            throw new IOException(CHECKPOINT_FILE + " failed its checksum");
+        }
+        for (int i = 0; i < count; i++) {
+            UUID playerId = PlayerRecords.readId(buf);
+            players.put(playerId, PlayerRecords.readData(buf));
+        }
+    }
+
+    /**
+     * @return the length of the journal's intact prefix, or -1 if the journal is unusable
+     */
+    private long replayJournal(Map<UUID, PlayerData> players) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        if (buf.remaining() < JOURNAL_HEADER_BYTES
+                || buf.getInt() != JOURNAL_MAGIC || buf.getInt() != FORMAT) {
+            plugin.getLogger().log(Level.WARNING, "Ignoring unreadable {0}.", JOURNAL_FILE);
+            return -1;
+        }
+        if (buf.getLong() != generation) {
+            plugin.getLogger().log(Level.INFO, "Ignoring {0} left over from an earlier compaction.", JOURNAL_FILE);
+            return -1;
+        }
+
+        Map<UUID, PlayerData> replayed = new HashMap<>();
+        while (buf.remaining() >= ENTRY_BYTES) {
+            int start = buf.position();
+            crc.reset();
+            crc.update(buf.array(), start, PlayerRecords.BYTES);
+            if ((int) crc.getValue() != buf.getInt(start + PlayerRecords.BYTES)) break;
+            UUID playerId = PlayerRecords.readId(buf);
+            replayed.put(playerId, PlayerRecords.readData(buf));
+            buf.position(start + ENTRY_BYTES);
+        }
+        if (buf.hasRemaining()) {
+            plugin.getLogger().log(Level.WARNING, "Dropping {0} bytes of torn entries at the end of {1}.",
+                    new Object[]{buf.remaining(), JOURNAL_FILE});
+        }
+        players.putAll(replayed);
+        return buf.position();
+    }
+
+    @Override
+    public void save(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        synchronized (lock) {
+            if (closed) return;
+            try {
+                if (journal == null) {
+                    compact(players);
+                } else {
+                    append(players, changed);
+                    if (journal.size() >= compactBytes) compact(players);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to write player data journal", e);
+            }
+        }
+    }
+
+    // Only flushes the journal tail; compaction can wait for the next start
+    @Override
+    public void close(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            try {
+                if (journal == null) {
+                    compact(players);
+                } else {
+                    append(players, changed);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to write player data journal", e);
+            }
+            closeJournal();
+        }
+    }
+
+    /**
+     * Append the changed records and force them to disk. A failed write is cut
+     * off again, so later entries don't land behind a torn one. Caller holds lock.
+     */
+    private void append(Map<UUID, PlayerData> players, Set<UUID> changed) throws IOException {
+        List<PlayerData> written = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        long start = journal.position();
+        try {
+            for (UUID playerId : changed) {
+                PlayerData data = players.get(playerId);
+                if (data == null) continue;
+                if (buffer.remaining() < ENTRY_BYTES) drain();
+                int entryStart = buffer.position();
+                versions.add(PlayerRecords.write(buffer, playerId, data));
+                crc.reset();
+                crc.update(buffer.array(), entryStart, PlayerRecords.BYTES);
+                buffer.putInt((int) crc.getValue());
+                written.add(data);
+            }
+            if (written.isEmpty()) return;
+            drain();
+            journal.force(false);
+        } catch (IOException e) {
+            buffer.clear();
+            journal.truncate(start);
+            journal.position(start);
+            throw e;
+        }
+        for (int i = 0; i < written.size(); i++) written.get(i).markSaved(versions.get(i));
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) journal.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Write every player to a new checkpoint and start an empty journal for it. Caller holds lock.
+     */
+    private void compact(Map<UUID, PlayerData> players) throws IOException {
+        long next = generation + 1;
+        List<PlayerData> written = new ArrayList<>(players.size());
+        List<UUID> ids = new ArrayList<>(players.size());
+        for (Map.Entry<UUID, PlayerData> entry : players.entrySet()) {
+            ids.add(entry.getKey());
+            written.add(entry.getValue());
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(CHECKPOINT_HEADER_BYTES + written.size() * PlayerRecords.BYTES + 4);
+        buf.putInt(CHECKPOINT_MAGIC).putInt(FORMAT).putLong(next).putInt(written.size());
+        long[] versions = new long[written.size()];
+        for (int i = 0; i < written.size(); i++) versions[i] = PlayerRecords.write(buf, ids.get(i), written.get(i));
+        crc.reset();
+        crc.update(buf.array(), CHECKPOINT_HEADER_BYTES, written.size() * PlayerRecords.BYTES);
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        writeAtomically(checkpointPath, buf);
+
+        // The checkpoint holds everything now; if the new journal fails, the next save compacts again
+        generation = next;
+        for (int i = 0; i < written.size(); i++) written.get(i).markSaved(versions[i]);
+        closeJournal();
+        startJournal(next);
+    }
+
+    private void startJournal(long journalGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+        header.putInt(JOURNAL_MAGIC).putInt(FORMAT).putLong(journalGeneration).flip();
+        writeAtomically(journalPath, header);
+        journal = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+        journal.position(journal.size());
+    }
+
+    // Caller holds lock
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Could not close {0}", JOURNAL_FILE);
+        }
+        journal = null;
+    }
+
+    // Keep an unreadable file for inspection instead of overwriting it
+    private void moveAside(Path file) {
+        if (!Files.exists(file)) return;
+        Path target = file.resolveSibling(file.getFileName() + ".corrupt");
+        try {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().log(Level.WARNING, "Moved {0} to {1}.", new Object[]{file.getFileName(), target.getFileName()});
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not move " + file.getFileName() + " aside", e);
+        }
+    }
+
+    private static void writeAtomically(Path target, ByteBuffer contents) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contents.hasRemaining()) channel.write(contents);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
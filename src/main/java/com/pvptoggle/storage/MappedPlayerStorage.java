@@ -0,0 +1,309 @@
+package com.pvptoggle.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.model.PlayerData;
+
+/**
+ * Fixed-size player records in a memory-mapped file.
+ *
+ * playerdata.map is a header followed by one slot per player ever seen, each a
+ * record and its CRC32. Slots are handed out in order and never move, so an
+ * index from UUID to slot built on load is all a save needs: every second the
+ * changed records are copied into their slots in place, and the OS writes the
+ * pages back on its own. The flush timer folds online players' running playtime
+ * into their records before each pass, so playtime, debt and toggles all reach
+ * the mapping within a second and survive the server process dying. The mapping
+ * is also forced to disk every {@code storage.mapped.sync-interval} seconds to
+ * bound what a power loss can take. Loading is one pass over the mapping.
+ *
+ * The file grows by doubling its slot capacity and mapping it again. A file
+ * that can't be read is moved aside and a new one started; if no file can be
+ * created at all, loading fails rather than run without saving.
+ */
+public class MappedPlayerStorage implements PlayerStorage {
+
+    private static final String DATA_FILE = "playerdata.map";
+
+    private static final int MAGIC = 0x5056504D;    // "PVPM"
+    private static final int FORMAT = 1;
+
+    // magic, format, capacity, used slots
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int SLOT_BYTES = PlayerRecords.BYTES + 4;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final long WRITE_INTERVAL_TICKS = 20;
+
+    private final PvPTogglePlugin plugin;
+    private final Path dataPath;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final byte[] scratch = new byte[SLOT_BYTES];
+    private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private int capacity;
+    private int used;                   // slots handed out, damaged ones included
+    private long lastSyncMillis;
+
+    private volatile long syncIntervalMillis;
+
+    public MappedPlayerStorage(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+        this.dataPath = new File(plugin.getDataFolder(), DATA_FILE).toPath();
+    }
+
+    @Override
+    public void loadConfigValues() {
+        int syncSeconds = plugin.getConfig().getInt("storage.mapped.sync-interval", 5);
+        if (syncSeconds < 1) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid value for ''storage.mapped.sync-interval'' ({0}); using 1 instead.", syncSeconds);
+            syncSeconds = 1;
+        }
+        this.syncIntervalMillis = syncSeconds * 1000L;
+    }
+
+    // Copying changed records, online players' playtime included, into the mapping is cheap, so do it every second
+    @Override
+    public long getFlushIntervalTicks() {
+        return WRITE_INTERVAL_TICKS;
+    }
+
+    /**
+     * @throws IllegalStateException if no mapped file can be opened or created
+     */
+    @Override
+    public void load(Map<UUID, PlayerData> players) {
+        synchronized (lock) {
+            boolean fresh = !Files.exists(dataPath);
+            try {
+                Files.createDirectories(dataPath.getParent());
+                if (fresh) {
+                    importPrevious(players);
+                    create(players);
+                } else {
+                    open();
+                    readSlots(players);
+                }
+            } catch (IOException e) {
+                closeChannel();
+                if (fresh) {
+                    // A half-written file would stop the next start from importing again
+                    plugin.getLogger().log(Level.SEVERE, "Failed to create " + DATA_FILE + "; trying again", e);
+                } else {
+                    plugin.getLogger().log(Level.SEVERE, "Could not load " + DATA_FILE + "; moving it aside and starting over", e);
+                    moveAside();
+                    players.clear();
+                }
+                try {
+                    Files.deleteIfExists(dataPath);
+                    create(players);
+                } catch (IOException again) {
+                    closeChannel();
+                    throw new IllegalStateException("Could not create " + DATA_FILE + "; player data can't be saved", again);
+                }
+            }
+            lastSyncMillis = System.currentTimeMillis();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(dataPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Start a new file holding the given players. Caller holds lock.
+     */
+    private void create(Map<UUID, PlayerData> players) throws IOException {
+        open();
+        slots.clear();
+        used = 0;
+        map(INITIAL_CAPACITY);
+        mapping.putInt(0, MAGIC).putInt(4, FORMAT).putInt(COUNT_OFFSET, 0);
+        for (Map.Entry<UUID, PlayerData> entry : players.entrySet()) {
+            entry.getValue().markSaved(writeSlot(entry.getKey(), entry.getValue()));
+        }
+        mapping.force();
+    }
+
+    private void readSlots(Map<UUID, PlayerData> players) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException(DATA_FILE + " is not a player data file");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+            throw new IOException(DATA_FILE + " is not a player data file");
+        }
+        int slotCapacity = header.getInt(CAPACITY_OFFSET);
+        // Never grow the file to a size read from a damaged header
+        if (slotCapacity <= 0 || HEADER_BYTES + (long) slotCapacity * SLOT_BYTES != channel.size()) {
+            throw new IOException(DATA_FILE + " has a corrupt header");
+        }
+        map(slotCapacity);
+        int count = mapping.getInt(COUNT_OFFSET);
+        if (count < 0 || count > capacity) {
+            throw new IOException(DATA_FILE + " has a corrupt header");
+        }
+        used = count;
+
+        int damaged = 0;
+        for (int slot = 0; slot < count; slot++) {
+            mapping.get(slotOffset(slot), scratch);
+            crc.reset();
+            crc.update(scratch, 0, PlayerRecords.BYTES);
+            scratchBuffer.clear();
+            if ((int) crc.getValue() != scratchBuffer.getInt(PlayerRecords.BYTES)) {
+                damaged++;
+                continue;
+            }
+            UUID playerId = PlayerRecords.readId(scratchBuffer);
+            players.put(playerId, PlayerRecords.readData(scratchBuffer));
+            slots.put(playerId, slot);
+        }
+        if (damaged > 0) {
+            plugin.getLogger().log(Level.WARNING, "Skipped {0} damaged records in {1}.",
+                    new Object[]{damaged, DATA_FILE});
+        }
+    }
+
+    // Switching engines: take over whatever the last one left, once
+    private void importPrevious(Map<UUID, PlayerData> players) {
+        File folder = plugin.getDataFolder();
+        String source;
+        if (new File(folder, "playerdata.dat").exists() || new File(folder, "playerdata.journal").exists()) {
+            JournalPlayerStorage journal = new JournalPlayerStorage(plugin);
+            journal.load(players);
+            journal.close(players, Set.of());
+            source = "the player data journal";
+        } else if (new File(folder, YamlPlayerStorage.DATA_FILE).exists()) {
+            new YamlPlayerStorage(plugin).load(players);
+            source = YamlPlayerStorage.DATA_FILE;
+        } else {
+            return;
+        }
+        plugin.getLogger().log(Level.INFO, "Imported {0} players from {1}.",
+                new Object[]{players.size(), source});
+    }
+
+    // mapping is null only once closed, since load either maps a file or throws
+    @Override
+    public void save(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        synchronized (lock) {
+            if (mapping == null) return;
+            writeChanged(players, changed);
+            long now = System.currentTimeMillis();
+            if (now - lastSyncMillis >= syncIntervalMillis) {
+                mapping.force();
+                lastSyncMillis = now;
+            }
+        }
+    }
+
+    @Override
+    public void close(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        synchronized (lock) {
+            if (mapping == null) return;
+            writeChanged(players, changed);
+            mapping.force();
+            closeChannel();
+        }
+    }
+
+    // Caller holds lock
+    private void writeChanged(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        try {
+            for (UUID playerId : changed) {
+                PlayerData data = players.get(playerId);
+                if (data != null) data.markSaved(writeSlot(playerId, data));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to grow mapped player data", e);
+        }
+    }
+
+    /**
+     * Copy one record into its slot, claiming the next slot for a new player. Caller holds lock.
+     *
+     * @return the record's version as of the values written
+     */
+    private long writeSlot(UUID playerId, PlayerData data) throws IOException {
+        scratchBuffer.clear();
+        long version = PlayerRecords.write(scratchBuffer, playerId, data);
+        crc.reset();
+        crc.update(scratch, 0, PlayerRecords.BYTES);
+        scratchBuffer.putInt((int) crc.getValue());
+
+        Integer slot = slots.get(playerId);
+        if (slot == null) {
+            slot = used;
+            if (slot == capacity) map(capacity * 2);
+            mapping.put(slotOffset(slot), scratch);
+            // Count the slot only once its record is in place
+            mapping.putInt(COUNT_OFFSET, ++used);
+            slots.put(playerId, slot);
+        } else {
+            mapping.put(slotOffset(slot), scratch);
+        }
+        return version;
+    }
+
+    /**
+     * Map the file at the given slot capacity, growing it if needed. Caller holds lock.
+     */
+    private void map(int slotCapacity) throws IOException {
+        if (slotCapacity <= 0) throw new IOException(DATA_FILE + " has a corrupt header");
+        long size = HEADER_BYTES + (long) slotCapacity * SLOT_BYTES;
+        if (size > Integer.MAX_VALUE) throw new IOException(DATA_FILE + " is full");
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapping.putInt(CAPACITY_OFFSET, slotCapacity);
+        capacity = slotCapacity;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    // Keep an unreadable file for inspection instead of overwriting it
+    private void moveAside() {
+        Path target = dataPath.resolveSibling(DATA_FILE + ".corrupt");
+        try {
+            Files.move(dataPath, target, StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().log(Level.WARNING, "Moved {0} to {1}.", new Object[]{DATA_FILE, target.getFileName()});
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not move " + DATA_FILE + " aside", e);
+        }
+    }
+
+    private void closeChannel() {
+        mapping = null;
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Could not close {0}", DATA_FILE);
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pvptoggle.storage;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import com.pvptoggle.model.PlayerData;
+
+/**
+ * Fixed-size binary form of one player's saved fields, shared by the binary engines:
+ * UUID (16), toggle (1), playtime seconds (8), processed cycles (4), debt seconds (8).
+ */
+final class PlayerRecords {
+
+    static final int BYTES = 16 + 1 + 8 + 4 + 8;
+
+    private PlayerRecords() {}
+
+    /**
+     * @return the record's version as of the values written
+     */
+    static long write(ByteBuffer buf, UUID playerId, PlayerData data) {
+        long version = data.getVersion();
+        buf.putLong(playerId.getMostSignificantBits());
+        buf.putLong(playerId.getLeastSignificantBits());
+        buf.put((byte) (data.isPvpEnabled() ? 1 : 0));
+        buf.putLong(data.getTotalPlaytimeSeconds());
+        buf.putInt(data.getProcessedCycles());
+        buf.putLong(data.getPvpDebtSeconds());
+        return version;
+    }
+
+    static UUID readId(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    /**
+     * Read the fields after the UUID into a record that counts as saved
+     */
+    static PlayerData readData(ByteBuffer buf) {
+        PlayerData data = new PlayerData();
+        data.setPvpEnabled(buf.get() != 0);
+        data.setTotalPlaytimeSeconds(buf.getLong());
+        data.setProcessedCycles(buf.getInt());
+        data.setPvpDebtSeconds(buf.getLong());
+        data.markSaved(data.getVersion());
+        return data;
+    }
+}
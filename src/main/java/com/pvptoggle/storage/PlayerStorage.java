@@ -0,0 +1,47 @@
+package com.pvptoggle.storage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.pvptoggle.model.PlayerData;
+
+/**
+ * Where player data lives between restarts, chosen with {@code storage.type}.
+ * Engines write the records of the players in the changed set they are handed,
+ * not every player, and mark them saved once they are on disk, which takes the
+ * player out of the set (see {@link PlayerData#markSaved}). Saves may run on any
+ * thread but never at the same time as each other.
+ */
+public interface PlayerStorage {
+
+    /**
+     * Read and cache this engine's config values (called on load and reload)
+     */
+    void loadConfigValues();
+
+    /**
+     * Fill the map with every stored player
+     */
+    void load(Map<UUID, PlayerData> players);
+
+    /**
+     * Persist changed records (auto-save, quits and the flush timer)
+     *
+     * @param players every player, for compactions
+     * @param changed players whose records changed since they were last saved
+     */
+    void save(Map<UUID, PlayerData> players, Set<UUID> changed);
+
+    /**
+     * Last save before the plugin disables; should be as quick as the engine allows
+     */
+    void close(Map<UUID, PlayerData> players, Set<UUID> changed);
+
+    /**
+     * @return ticks between extra saves on top of the auto-save interval, or 0 for none
+     */
+    default long getFlushIntervalTicks() {
+        return 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.pvptoggle.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.model.PlayerData;
+import com.pvptoggle.util.YamlUtil;
+
+/**
+ * playerdata.yml holds every player as of the last compaction. Between
+ * compactions, saves only rewrite playerdata-delta.yml with the records that
+ * changed since, so a save costs the players who were active, not everyone
+ * ever seen. The delta names the generation of the full file it applies to;
+ * a compaction bumps the generation, which retires the old delta even if the
+ * server stops before it is deleted.
+ */
+public class YamlPlayerStorage implements PlayerStorage {
+
+    static final String DATA_FILE = "playerdata.yml";
+    private static final String DELTA_FILE = "playerdata-delta.yml";
+
+    private final PvPTogglePlugin plugin;
+
+    // Synchronize writes to player data file
+    private final Object saveLock = new Object();
+    private final Set<UUID> deltaIds = new HashSet<>();     // records in the delta file; guarded by saveLock
+    private long generation;                                // of playerdata.yml; guarded by saveLock
+    private long lastCompactionMillis;                      // guarded by saveLock
+    private volatile long compactionIntervalMillis;
+
+    public YamlPlayerStorage(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void loadConfigValues() {
+        int compactionMinutes = plugin.getConfig().getInt("save-compaction-interval", 60);
+        if (compactionMinutes < 0) {
+            plugin.getLogger().log(Level.WARNING, "[PvPToggle] Invalid negative value for ''save-compaction-interval'' ({0}); using 0 instead.", compactionMinutes);
+            compactionMinutes = 0;
+        }
+        this.compactionIntervalMillis = compactionMinutes * 60_000L;
+    }
+
+    @Override
+    public void load(Map<UUID, PlayerData> players) {
+        YamlConfiguration full = YamlUtil.load(plugin.getDataFolder(), DATA_FILE);
+        YamlConfiguration delta = YamlUtil.load(plugin.getDataFolder(), DELTA_FILE);
+        synchronized (saveLock) {
+            generation = full == null ? 0 : full.getLong("generation", 0);
+            lastCompactionMillis = System.currentTimeMillis();
+            if (full != null) loadPlayers(full.getConfigurationSection("players"), players, null);
+            if (delta != null) {
+                if (delta.getLong("base-generation", -1) == generation) {
+                    loadPlayers(delta.getConfigurationSection("players"), players, deltaIds);
+                } else {
+                    plugin.getLogger().log(Level.INFO, "Ignoring {0} left over from an earlier compaction.", DELTA_FILE);
+                }
+            }
+        }
+    }
+
+    private void loadPlayers(ConfigurationSection section, Map<UUID, PlayerData> players, Set<UUID> loadedIds) {
+        if (section == null) return;
+
+        for (String uuidStr : section.getKeys(false)) {
+            try {
+                UUID uuid = UUID.fromString(uuidStr);
+                ConfigurationSection record = section.getConfigurationSection(uuidStr);
+                if (record == null) continue;
+
+                PlayerData data = new PlayerData();
+                data.setPvpEnabled(record.getBoolean("pvp-enabled", false));
+                data.setTotalPlaytimeSeconds(record.getLong("total-playtime-seconds", 0));
+                data.setProcessedCycles(record.getInt("processed-cycles", 0));
+                data.setPvpDebtSeconds(record.getLong("pvp-debt-seconds", 0));
+                data.markSaved(data.getVersion());
+                players.put(uuid, data);
+                if (loadedIds != null) loadedIds.add(uuid);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.WARNING,
+                        "Skipping invalid UUID in player data: {0}", uuidStr);
+            }
+        }
+    }
+
+    /**
+     * Persist changed records, or everything if a compaction is due
+     */
+    @Override
+    public void save(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        synchronized (saveLock) {
+            if (System.currentTimeMillis() - lastCompactionMillis >= compactionIntervalMillis) {
+                compact(players);
+                return;
+            }
+
+            if (changed.isEmpty()) return;
+            deltaIds.addAll(changed);
+
+            YamlConfiguration config = new YamlConfiguration();
+            config.set("base-generation", generation);
+            List<PlayerData> written = new ArrayList<>(deltaIds.size());
+            long[] versions = new long[deltaIds.size()];
+            for (UUID uuid : deltaIds) {
+                PlayerData data = players.get(uuid);
+                if (data == null) continue;
+                versions[written.size()] = writeRecord(config, uuid, data);
+                written.add(data);
+            }
+            if (YamlUtil.saveConfig(config, plugin.getDataFolder(), DELTA_FILE,
+                    plugin.getLogger(), "Failed to save player data")) {
+                for (int i = 0; i < written.size(); i++) written.get(i).markSaved(versions[i]);
+            }
+        }
+    }
+
+    @Override
+    public void close(Map<UUID, PlayerData> players, Set<UUID> changed) {
+        save(players, changed);
+    }
+
+    /**
+     * Rewrite playerdata.yml with every player and retire the delta. Caller holds saveLock.
+     */
+    private void compact(Map<UUID, PlayerData> players) {
+        long next = generation + 1;
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("generation", next);
+        List<PlayerData> written = new ArrayList<>(players.size());
+        long[] versions = new long[players.size()];
+        for (Map.Entry<UUID, PlayerData> entry : players.entrySet()) {
+            // Players first seen while writing wait for the next save
+            if (written.size() == versions.length) break;
+            versions[written.size()] = writeRecord(config, entry.getKey(), entry.getValue());
+            written.add(entry.getValue());
+        }
+        if (!YamlUtil.saveConfig(config, plugin.getDataFolder(), DATA_FILE,
+                plugin.getLogger(), "Failed to save player data")) {
+            return;
+        }
+        for (int i = 0; i < written.size(); i++) written.get(i).markSaved(versions[i]);
+        generation = next;
+        deltaIds.clear();
+        lastCompactionMillis = System.currentTimeMillis();
+
+        File delta = new File(plugin.getDataFolder(), DELTA_FILE);
+        if (delta.exists() && !delta.delete()) {
+            plugin.getLogger().log(Level.FINE, "Could not delete {0}; it is ignored from now on.", DELTA_FILE);
+        }
+    }
+
+    // @return the record's version as of the values written
+    private static long writeRecord(YamlConfiguration config, UUID uuid, PlayerData data) {
+        long version = data.getVersion();
+        String path = "players." + uuid.toString();
+        config.set(path + ".pvp-enabled",            data.isPvpEnabled());
+        config.set(path + ".total-playtime-seconds", data.getTotalPlaytimeSeconds());
+        config.set(path + ".processed-cycles",       data.getProcessedCycles());
+        config.set(path + ".pvp-debt-seconds",       data.getPvpDebtSeconds());
+        return version;
+    }
+}
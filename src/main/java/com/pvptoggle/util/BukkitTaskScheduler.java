@@ -0,0 +1,83 @@
+package com.pvptoggle.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * Spigot and Paper: one main thread, so per-player tasks are main thread tasks
+ * that check the player is still online.
+ */
+final class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isFolia() {
+        return false;
+    }
+
+    @Override
+    public void run(Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+    }
+
+    @Override
+    public Task runTimer(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks)::cancel;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks)::cancel;
+    }
+
+    @Override
+    public void run(Player player, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (player.isOnline()) task.run();
+            });
+        }
+    }
+
+    @Override
+    public void runLater(Player player, Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (player.isOnline()) task.run();
+        }, delayTicks);
+    }
+
+    @Override
+    public Task runTimer(Player player, Runnable task, long delayTicks, long periodTicks) {
+        BukkitRunnable runnable = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (player.isOnline()) {
+                    task.run();
+                } else {
+                    cancel();
+                }
+            }
+        };
+        runnable.runTaskTimer(plugin, delayTicks, periodTicks);
+        return runnable::cancel;
+    }
+}
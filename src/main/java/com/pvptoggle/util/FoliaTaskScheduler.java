@@ -0,0 +1,149 @@
+package com.pvptoggle.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Folia's region schedulers, reached by reflection since the plugin is built
+ * against the Spigot API. Every method is looked up once, when the plugin enables.
+ * Folia rejects delays below one tick, so delays are raised to one.
+ */
+final class FoliaTaskScheduler implements TaskScheduler {
+
+    private static final String PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+
+    private final Plugin plugin;
+    private final Object globalScheduler;
+    private final Object asyncScheduler;
+
+    private final Method globalRun;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method asyncRunNow;
+    private final Method asyncRunAtFixedRate;
+    private final Method entityScheduler;
+    private final Method entityRun;
+    private final Method entityRunDelayed;
+    private final Method entityRunAtFixedRate;
+    private final Method taskCancel;
+    private final Method ownedByCurrentRegion;
+
+    FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        try {
+            Class<?> global = Class.forName(PACKAGE + "GlobalRegionScheduler");
+            Class<?> async = Class.forName(PACKAGE + "AsyncScheduler");
+            Class<?> entity = Class.forName(PACKAGE + "EntityScheduler");
+            Class<?> scheduled = Class.forName(PACKAGE + "ScheduledTask");
+
+            Server server = Bukkit.getServer();
+            this.globalScheduler = Server.class.getMethod("getGlobalRegionScheduler").invoke(server);
+            this.asyncScheduler = Server.class.getMethod("getAsyncScheduler").invoke(server);
+
+            this.globalRun = global.getMethod("run", Plugin.class, Consumer.class);
+            this.globalRunDelayed = global.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+            this.globalRunAtFixedRate = global.getMethod("runAtFixedRate",
+                    Plugin.class, Consumer.class, long.class, long.class);
+            this.asyncRunNow = async.getMethod("runNow", Plugin.class, Consumer.class);
+            this.asyncRunAtFixedRate = async.getMethod("runAtFixedRate",
+                    Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class);
+            this.entityScheduler = Entity.class.getMethod("getScheduler");
+            this.entityRun = entity.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+            this.entityRunDelayed = entity.getMethod("runDelayed",
+                    Plugin.class, Consumer.class, Runnable.class, long.class);
+            this.entityRunAtFixedRate = entity.getMethod("runAtFixedRate",
+                    Plugin.class, Consumer.class, Runnable.class, long.class, long.class);
+            this.taskCancel = scheduled.getMethod("cancel");
+            this.ownedByCurrentRegion = Server.class.getMethod("isOwnedByCurrentRegion", Entity.class);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported Folia scheduler API", e);
+        }
+    }
+
+    @Override
+    public boolean isFolia() {
+        return true;
+    }
+
+    @Override
+    public void run(Runnable task) {
+        invoke(globalRun, globalScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayTicks) {
+        invoke(globalRunDelayed, globalScheduler, plugin, consumer(task), Math.max(1, delayTicks));
+    }
+
+    @Override
+    public Task runTimer(Runnable task, long delayTicks, long periodTicks) {
+        return handle(invoke(globalRunAtFixedRate, globalScheduler, plugin, consumer(task),
+                Math.max(1, delayTicks), Math.max(1, periodTicks)));
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        invoke(asyncRunNow, asyncScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return handle(invoke(asyncRunAtFixedRate, asyncScheduler, plugin, consumer(task),
+                Math.max(1, delayTicks) * 50L, Math.max(1, periodTicks) * 50L, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void run(Player player, Runnable task) {
+        if ((boolean) invoke(ownedByCurrentRegion, Bukkit.getServer(), player)) {
+            task.run();
+        } else {
+            invoke(entityRun, scheduler(player), plugin, consumer(task), null);
+        }
+    }
+
+    @Override
+    public void runLater(Player player, Runnable task, long delayTicks) {
+        invoke(entityRunDelayed, scheduler(player), plugin, consumer(task), null, Math.max(1, delayTicks));
+    }
+
+    @Override
+    public Task runTimer(Player player, Runnable task, long delayTicks, long periodTicks) {
+        // Returns null if the player already left; the task is retired with them otherwise
+        return handle(invoke(entityRunAtFixedRate, scheduler(player), plugin, consumer(task), null,
+                Math.max(1, delayTicks), Math.max(1, periodTicks)));
+    }
+
+    private Object scheduler(Player player) {
+        return invoke(entityScheduler, player);
+    }
+
+    private static Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    private Task handle(Object scheduledTask) {
+        if (scheduledTask == null) return () -> { };
+        return () -> invoke(taskCancel, scheduledTask);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
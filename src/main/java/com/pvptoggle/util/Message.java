@@ -0,0 +1,75 @@
+package com.pvptoggle.util;
+
+/**
+ * Player-facing messages, keyed by their path under {@code messages} (and under
+ * each {@code locales.<locale>} section) in config.yml. Placeholders are listed
+ * in the order their values are passed to {@link MessageCatalog#send}.
+ */
+public enum Message {
+
+    PLAYER_ONLY("player-only", "&cThis command can only be used by players."),
+    PVP_ENABLED("pvp-enabled", "&a&l⚔ PvP enabled! &7You can now deal and receive player damage."),
+    PVP_DISABLED("pvp-disabled", "&c&l⚔ PvP disabled. &7You are now protected from players."),
+    PVP_BLOCKED_ATTACKER("pvp-blocked-attacker", "&c&l✘ &cYour PvP is off! &7Use &a/pvp on &7to fight."),
+    PVP_BLOCKED_VICTIM("pvp-blocked-victim", "&c&l✘ &cThat player has PvP disabled!"),
+    PVP_BLOCKED_WORLD("pvp-blocked-world", "&c&l✘ &cPvP is disabled in this world."),
+    PVP_FORCED_ZONE("pvp-forced-zone",
+            "&4&l⚠ &cYou're in a &4forced PvP zone&c! You can't disable PvP here.", "zone"),
+    PVP_FORCED_PLAYTIME("pvp-forced-playtime", "&4&l⚠ &cForced PvP active! &f%time% &cremaining.", "time"),
+    PVP_FORCED_WINDOW("pvp-forced-window",
+            "&4&l⚠ &cA server-wide PvP window is open! You can't disable PvP right now."),
+    PVP_FORCED_WORLD("pvp-forced-world", "&4&l⚠ &cPvP is always on in this world."),
+    PVP_COMBAT_TAGGED("pvp-combat-tagged",
+            "&4&l⚠ &cYou're in combat! You can't disable PvP for another &f%time%&c.", "time"),
+    COMBAT_TAG_EXPIRED("combat-tag-expired", "&a✓ You're no longer in combat."),
+    PVP_ALREADY_ON("pvp-already-on", "&7Your PvP is already &aenabled&7."),
+    PVP_ALREADY_OFF("pvp-already-off", "&7Your PvP is already &cdisabled&7."),
+    PVP_ALREADY_FORCED("pvp-already-forced", "&7PvP is already &cforced on &7for you right now."),
+    PVP_WINDOW_START("pvp-window-start",
+            "&4&l⚔ &cA server-wide PvP window has opened! Everyone's PvP is forced on."),
+    PVP_WINDOW_END("pvp-window-end", "&a&l✓ &aThe server-wide PvP window has closed."),
+    ZONE_ENTER("zone-enter", "&c&l⚔ You entered a forced PvP zone!"),
+    ZONE_ENTER_ACTIONBAR("zone-enter-actionbar", "&c&l⚔ FORCED PVP ZONE ⚔"),
+    ZONE_LEAVE("zone-leave", "&a&l✓ You left the forced PvP zone."),
+    ZONE_LEAVE_ACTIONBAR("zone-leave-actionbar", "&a&l✓ You left the forced PvP zone."),
+    WAND_POSITION("wand-position", "&ePosition %position% &7set to &f(%x%, %y%, %z%)", "position", "x", "y", "z"),
+    WAND_POLYGON_POINT("wand-polygon-point",
+            "&ePolygon point #%point% &7added at &f(%x%, %y%, %z%)", "point", "x", "y", "z"),
+    WAND_POLYGON_CLEARED("wand-polygon-cleared", "&ePolygon points &7cleared."),
+    DEBT_STARTED("forced-pvp-started", "&c&l⚔ Forced PvP activated! &7Duration: &f%time%", "time"),
+    DEBT_REMINDER("forced-pvp-reminder", "&c&l⚔ You have forced PvP time remaining: &f%time%", "time"),
+    DEBT_ENDED("forced-pvp-ended", "&a&l⚔ Your forced PvP period has ended!"),
+    DEBT_ENDED_ACTIONBAR("forced-pvp-ended-actionbar", "&a✓ Forced PvP ended"),
+    DEBT_ACTIONBAR("forced-pvp-actionbar", "&c⚔ Forced PvP &7| &f%time% &7remaining", "time"),
+    DEBT_PAUSED_ACTIONBAR("forced-pvp-paused-actionbar",
+            "&e⚔ Forced PvP &7(paused — solo) &7| &f%time% &7remaining", "time"),
+    STATUS_HEADER("status-header", "&6&l══════ PvP Status ══════"),
+    STATUS_ENABLED("status-enabled", "&7PvP: &a✓ Enabled"),
+    STATUS_DISABLED("status-disabled", "&7PvP: &c✗ Disabled"),
+    STATUS_TOGGLE_ON("status-toggle-on", "&7Manual toggle: &aOn"),
+    STATUS_TOGGLE_OFF("status-toggle-off", "&7Manual toggle: &cOff"),
+    STATUS_FORCED("status-forced", "&7Forced: &c&lYes"),
+    STATUS_REASON_ZONE("status-reason-zone", "&7  Reason: &eForced PvP Zone &7(&f%zone%&7)", "zone"),
+    STATUS_REASON_WINDOW("status-reason-window", "&7  Reason: &eServer-wide PvP window"),
+    STATUS_REASON_WORLD("status-reason-world", "&7  Reason: &eWorld rule"),
+    STATUS_REASON_COMBAT("status-reason-combat", "&7  Reason: &eCombat tag &7(&f%time%&7)", "time"),
+    STATUS_DEBT("status-debt", "&7  Playtime debt: &f%time%", "time"),
+    STATUS_PLAYTIME("status-playtime", "&7Total playtime: &f%time%", "time"),
+    UPDATE_AVAILABLE("update-available",
+            "&e&lPolarPvP &8» &7Update available: &av%latest% &7(you're on &cv%current%&7)", "latest", "current");
+
+    private final String key;
+    private final String defaultText;
+    private final String[] placeholders;
+
+    Message(String key, String defaultText, String... placeholders) {
+        this.key = key;
+        this.defaultText = defaultText;
+        this.placeholders = placeholders;
+    }
+
+    public String getKey()         { return key; }
+    public String getDefaultText() { return defaultText; }
+
+    String[] getPlaceholders()     { return placeholders; }
+}
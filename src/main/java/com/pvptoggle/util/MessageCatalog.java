@@ -0,0 +1,124 @@
+package com.pvptoggle.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import com.pvptoggle.PvPTogglePlugin;
+import com.pvptoggle.model.PlayerSession;
+
+/**
+ * Every player-facing message, compiled once on load and on reload.
+ *
+ * The {@code messages} section is the default variant. Each {@code locales.<locale>}
+ * section overrides any of its keys for clients using that locale ({@code de_de})
+ * or language ({@code de}); keys it leaves out fall back to the default text.
+ * A player's client locale is tracked in their session, and the variant it
+ * resolves to is remembered, so a send is one map lookup plus the render.
+ */
+public class MessageCatalog {
+
+    private static final int MESSAGE_COUNT = Message.values().length;
+
+    private final PvPTogglePlugin plugin;
+
+    // Swapped as a whole on reload so a send never sees half a catalog
+    private volatile Compiled compiled;
+
+    private record Compiled(MessageTemplate[] defaults,
+                            Map<String, MessageTemplate[]> locales,
+                            Map<String, MessageTemplate[]> resolved) {}
+
+    public MessageCatalog(PvPTogglePlugin plugin) {
+        this.plugin = plugin;
+        load();
+    }
+
+    /**
+     * Compile all messages from the current config (called on plugin enable and reload)
+     */
+    public void load() {
+        FileConfiguration config = plugin.getConfig();
+        MessageTemplate[] defaults = new MessageTemplate[MESSAGE_COUNT];
+        for (Message message : Message.values()) {
+            String raw = config.getString("messages." + message.getKey(), message.getDefaultText());
+            defaults[message.ordinal()] = MessageTemplate.compile(raw, message.getPlaceholders());
+        }
+
+        Map<String, MessageTemplate[]> locales = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("locales");
+        if (section != null) {
+            for (String locale : section.getKeys(false)) {
+                ConfigurationSection localeSection = section.getConfigurationSection(locale);
+                if (localeSection == null) continue;
+                MessageTemplate[] templates = defaults.clone();
+                for (Message message : Message.values()) {
+                    String raw = localeSection.getString(message.getKey());
+                    if (raw != null) templates[message.ordinal()] = MessageTemplate.compile(raw, message.getPlaceholders());
+                }
+                locales.put(normalize(locale), templates);
+            }
+        }
+        compiled = new Compiled(defaults, locales, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return the template for the sender's locale; console and command blocks get the default
+     */
+    public MessageTemplate get(CommandSender sender, Message message) {
+        Compiled current = compiled;
+        if (!(sender instanceof Player player) || current.locales().isEmpty()) {
+            return current.defaults()[message.ordinal()];
+        }
+        return variantFor(current, player)[message.ordinal()];
+    }
+
+    public void send(CommandSender sender, Message message, String... values) {
+        MessageTemplate template = get(sender, message);
+        if (template.isEmpty()) return;
+        sender.sendMessage(template.render(values));
+    }
+
+    /**
+     * Send a message without placeholders to every online player in their own locale
+     */
+    public void broadcast(Message message) {
+        for (Player player : Bukkit.getOnlinePlayers()) send(player, message);
+    }
+
+    private MessageTemplate[] variantFor(Compiled current, Player player) {
+        PlayerSession session = plugin.getPvPManager().getSession(player.getUniqueId());
+        String locale = session.getLocale();
+        if (locale == null) {
+            locale = normalize(player.getLocale());
+            session.setLocale(locale);
+        }
+        MessageTemplate[] variant = current.resolved().get(locale);
+        if (variant != null) return variant;
+        return current.resolved().computeIfAbsent(locale, key -> resolve(current, key));
+    }
+
+    // Exact locale first, then its language, then the default messages
+    private static MessageTemplate[] resolve(Compiled current, String locale) {
+        MessageTemplate[] variant = current.locales().get(locale);
+        if (variant != null) return variant;
+        int separator = locale.indexOf('_');
+        if (separator > 0) variant = current.locales().get(locale.substring(0, separator));
+        return variant != null ? variant : current.defaults();
+    }
+
+    /**
+     * @return the locale in the form used as catalog key, e.g. {@code en_us}
+     */
+    public static String normalize(String locale) {
+        if (locale == null) return "";
+        return locale.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+}
@@ -0,0 +1,98 @@
+package com.pvptoggle.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.ChatColor;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+/**
+ * A message compiled once from its config text: color codes are translated up
+ * front and the text is split into literal segments around indexed placeholder
+ * slots, so sending it is a few appends instead of a colorize and a replace per
+ * placeholder. Templates without placeholders also keep their action bar
+ * components, which are then built exactly once.
+ */
+public final class MessageTemplate {
+
+    private static final MessageTemplate EMPTY = new MessageTemplate(new String[]{""}, new int[0]);
+
+    private final String[] segments;        // literal text, one more than there are slots
+    private final int[] slots;              // argument index for the gap after each segment
+    private final String text;              // whole message when there are no slots
+    private final BaseComponent[] components;
+
+    private MessageTemplate(String[] segments, int[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+        this.text = slots.length == 0 ? segments[0] : null;
+        this.components = text != null && !text.isEmpty() ? TextComponent.fromLegacyText(text) : null;
+    }
+
+    /**
+     * @param raw          config text with {@code &} color codes, or null for an empty message
+     * @param placeholders placeholder names without the surrounding {@code %}; a
+     *                     value's index in {@link #render} is its index here
+     */
+    public static MessageTemplate compile(String raw, String... placeholders) {
+        if (raw == null || raw.isEmpty()) return EMPTY;
+        String colored = ChatColor.translateAlternateColorCodes('&', raw);
+
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int literalStart = 0;
+        int i = colored.indexOf('%');
+        while (i >= 0) {
+            int matched = -1;
+            for (int p = 0; p < placeholders.length; p++) {
+                String name = placeholders[p];
+                if (colored.startsWith(name, i + 1) && colored.startsWith("%", i + 1 + name.length())) {
+                    matched = p;
+                    break;
+                }
+            }
+            if (matched < 0) {
+                i = colored.indexOf('%', i + 1);
+                continue;
+            }
+            segments.add(colored.substring(literalStart, i));
+            slots.add(matched);
+            literalStart = i + placeholders[matched].length() + 2;
+            i = colored.indexOf('%', literalStart);
+        }
+        segments.add(colored.substring(literalStart));
+        return new MessageTemplate(segments.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return true if the message was configured as empty, meaning it should not be sent
+     */
+    public boolean isEmpty() {
+        return segments.length == 1 && segments[0].isEmpty();
+    }
+
+    /**
+     * @param values placeholder values in declaration order; inserted as-is, without color translation
+     */
+    public String render(String... values) {
+        if (text != null) return text;
+        StringBuilder sb = new StringBuilder(64);
+        for (int s = 0; s < slots.length; s++) {
+            sb.append(segments[s]);
+            int slot = slots[s];
+            if (slot < values.length) sb.append(values[slot]);
+        }
+        return sb.append(segments[slots.length]).toString();
+    }
+
+    /**
+     * @return action bar components; cached for messages without placeholders
+     */
+    public BaseComponent[] components(String... values) {
+        if (components != null) return components;
+        return TextComponent.fromLegacyText(render(values));
+    }
+}
@@ -0,0 +1,59 @@
+package com.pvptoggle.util;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Where the plugin's tasks run. On Spigot and Paper everything that isn't async
+ * runs on the main thread. On Folia there is no main thread: global work runs on
+ * the global region, and work on a player runs on the thread of the region the
+ * player is in, so players in different regions are handled in parallel.
+ *
+ * Per-player tasks never run after the player has left.
+ */
+public interface TaskScheduler {
+
+    @FunctionalInterface
+    interface Task {
+        void cancel();
+    }
+
+    /**
+     * @return the Folia scheduler when running on Folia, the Bukkit one otherwise
+     */
+    static TaskScheduler create(Plugin plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+        } catch (ClassNotFoundException e) {
+            return new BukkitTaskScheduler(plugin);
+        }
+        return new FoliaTaskScheduler(plugin);
+    }
+
+    boolean isFolia();
+
+    // Global work: the main thread, or Folia's global region
+
+    void run(Runnable task);
+
+    void runLater(Runnable task, long delayTicks);
+
+    Task runTimer(Runnable task, long delayTicks, long periodTicks);
+
+    // Off every game thread: file I/O and network calls
+
+    void runAsync(Runnable task);
+
+    Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    // On the thread that owns the player
+
+    /**
+     * Run right away if the caller already is on the player's thread, otherwise on the next tick there
+     */
+    void run(Player player, Runnable task);
+
+    void runLater(Player player, Runnable task, long delayTicks);
+
+    Task runTimer(Player player, Runnable task, long delayTicks, long periodTicks);
+}
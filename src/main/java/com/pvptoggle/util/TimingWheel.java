@@ -0,0 +1,123 @@
+package com.pvptoggle.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for many short timers keyed by an id, advanced one tick at a time.
+ *
+ * Each key sits in the slot its deadline hashes to, in a doubly linked list, so
+ * scheduling, rescheduling and cancelling are O(1) and a tick only looks at the
+ * keys in one slot. Deadlines further out than one turn of the wheel simply stay
+ * in their slot until the turn they fall due. Not thread-safe.
+ */
+public final class TimingWheel<K> {
+
+    private static final class Node<K> {
+        final K key;
+        long deadline;
+        int slot;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key) { this.key = key; }
+    }
+
+    private final Node<K>[] slots;
+    private final int mask;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final List<K> expired = new ArrayList<>();
+    private long now;
+
+    /**
+     * @param slotCount number of slots, rounded up to a power of two; ideally above the usual delay
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(int slotCount) {
+        int size = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.slots = (Node<K>[]) new Node[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Start a timer for the key, or restart it if one is running.
+     * @param delayTicks ticks until it expires, at least 1
+     */
+    public void schedule(K key, long delayTicks) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            unlink(node);
+        }
+        node.deadline = now + Math.max(1, delayTicks);
+        link(node, (int) (node.deadline & mask));
+    }
+
+    /**
+     * @return true if the key had a running timer
+     */
+    public boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) return false;
+        unlink(node);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     * @return ticks until the key's timer expires, or 0 if it has none
+     */
+    public long remaining(K key) {
+        Node<K> node = nodes.get(key);
+        return node == null ? 0 : node.deadline - now;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Move time forward one tick and hand every key that fell due to {@code onExpire}.
+     * The callback runs after the slot was processed, so it may schedule or cancel freely.
+     */
+    public void advance(Consumer<? super K> onExpire) {
+        now++;
+        Node<K> node = slots[(int) (now & mask)];
+        while (node != null) {
+            Node<K> next = node.next;
+            if (node.deadline <= now) {
+                unlink(node);
+                nodes.remove(node.key);
+                expired.add(node.key);
+            }
+            node = next;
+        }
+        if (expired.isEmpty()) return;
+        for (K key : expired) onExpire.accept(key);
+        expired.clear();
+    }
+
+    private void link(Node<K> node, int slot) {
+        node.slot = slot;
+        node.prev = null;
+        node.next = slots[slot];
+        if (node.next != null) node.next.prev = node;
+        slots[slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.prev != null) node.prev.next = node.next;
+        else slots[node.slot] = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+}
@@ -6,7 +6,6 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.logging.Level;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -27,7 +26,7 @@ public class UpdateChecker implements Listener {
     }
 
     public void check() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getTaskScheduler().runAsync(() -> {
             HttpURLConnection connection = null;
             try {
                 connection = (HttpURLConnection) URI.create(GITHUB_API).toURL().openConnection();
@@ -75,16 +74,10 @@ public class UpdateChecker implements Listener {
         Player player = event.getPlayer();
         if (!player.hasPermission("pvptoggle.admin")) return;
 
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (player.isOnline()) {
-                String msg = plugin.getConfig().getString(
-                        "messages.update-available",
-                        "&e&lPolarPvP &8» &7Update available: &av%latest% &7(you're on &cv%current%&7)");
-                msg = msg.replace("%latest%", latestVersion)
-                         .replace("%current%", plugin.getDescription().getVersion());
-                MessageUtil.send(player, msg);
-            }
-        }, 60L); // 3 seconds after join
+        plugin.getTaskScheduler().runLater(player, () ->
+                plugin.getMessages().send(player, Message.UPDATE_AVAILABLE,
+                        latestVersion, plugin.getDescription().getVersion()),
+                60L); // 3 seconds after join
     }
 
     private String extractTag(String json) {
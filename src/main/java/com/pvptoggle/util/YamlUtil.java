@@ -22,13 +22,8 @@ public final class YamlUtil {
      * @return The ConfigurationSection or null if file doesn't exist or section doesn't exist
      */
     public static ConfigurationSection loadSection(File dataFolder, String filename, String sectionKey) {
-        File file = new File(dataFolder, filename);
-        if (!file.exists()) {
-            // File doesn't exist - this is expected on first run
-            return null;
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        YamlConfiguration config = load(dataFolder, filename);
+        if (config == null) return null;
         ConfigurationSection section = config.getConfigurationSection(sectionKey);
         
         if (section == null) {
@@ -43,6 +38,19 @@ public final class YamlUtil {
         return section;
     }
 
+    /**
+     * Loads a whole YAML file.
+     * @return The configuration, or null if the file doesn't exist
+     */
+    public static YamlConfiguration load(File dataFolder, String filename) {
+        File file = new File(dataFolder, filename);
+        if (!file.exists()) {
+            // File doesn't exist - this is expected on first run
+            return null;
+        }
+        return YamlConfiguration.loadConfiguration(file);
+    }
+
     /**
      * Saves a YAML configuration to a file with error handling.
      * @param config The YamlConfiguration to save
@@ -50,13 +58,16 @@ public final class YamlUtil {
      * @param filename The name of the YAML file
      * @param logger The logger to use for error messages
      * @param errorMessage The error message to log on failure
+     * @return true if the file was written
      */
-    public static void saveConfig(YamlConfiguration config, File dataFolder, String filename, 
+    public static boolean saveConfig(YamlConfiguration config, File dataFolder, String filename, 
                                    Logger logger, String errorMessage) {
         try {
             config.save(new File(dataFolder, filename));
+            return true;
         } catch (IOException e) {
             logger.log(Level.SEVERE, errorMessage, e);
+            return false;
         }
     }
 }